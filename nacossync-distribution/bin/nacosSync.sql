@@ -39,5 +39,19 @@ CREATE TABLE `task` (
   `task_status` varchar(255) COLLATE utf8mb4_bin DEFAULT NULL,
   `version` varchar(255) COLLATE utf8mb4_bin DEFAULT NULL,
   `worker_ip` varchar(255) COLLATE utf8mb4_bin DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  `gmt_modified` bigint(20) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_task_gmt_modified` (`gmt_modified`)
 ) ENGINE=InnoDB AUTO_INCREMENT=6 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin;
+/******************************************/
+/*   DB name = nacos_sync   */
+/*   Table name = worker_lease   */
+/******************************************/
+CREATE TABLE `worker_lease` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `worker_id` varchar(255) COLLATE utf8mb4_bin DEFAULT NULL,
+  `worker_ip` varchar(255) COLLATE utf8mb4_bin DEFAULT NULL,
+  `heartbeat_time` bigint(20) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_worker_lease_worker_id` (`worker_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_bin;
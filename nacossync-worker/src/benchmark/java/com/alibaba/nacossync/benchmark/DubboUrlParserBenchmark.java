@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.benchmark;
+
+import com.alibaba.nacossync.util.DubboUrlParser;
+import com.alibaba.nacossync.util.StringUtils;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of one provider event, the regex based {@link StringUtils} parsers against {@link DubboUrlParser}. Run with
+ * {@code -prof gc} to compare the allocation per event as well.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=DubboUrlParserBenchmark
+ * </pre>
+ *
+ * @author NacosSync
+ * @version $Id: DubboUrlParserBenchmark.java, v 0.1 2026-10-18 PM10:30 NacosSync Exp $$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DubboUrlParserBenchmark {
+
+    @Param({"4", "16", "48"})
+    private int parameterCount;
+
+    private String path;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> metaData = new LinkedHashMap<>();
+        metaData.put("protocol", "dubbo");
+        metaData.put("interface", "org.apache.dubbo.demo.DemoService");
+        metaData.put("version", "1.0.0");
+        metaData.put("application", "demo-provider");
+        for (int i = metaData.size(); i < parameterCount; i++) {
+            metaData.put("key" + i, "value-" + i);
+        }
+        path = StringUtils.convertDubboFullPathForZk(metaData,
+            StringUtils.convertDubboProvidersPath("org.apache.dubbo.demo.DemoService"), "172.16.0.10", 20880);
+    }
+
+    @Benchmark
+    public void regexParse(Blackhole blackhole) {
+        Map<String, String> ipAndPortParam = StringUtils.parseIpAndPortString(path);
+        Map<String, String> queryParam = StringUtils.parseQueryString(path);
+        blackhole.consume(ipAndPortParam);
+        blackhole.consume(queryParam);
+    }
+
+    @Benchmark
+    public DubboUrlParser.ProviderUrl singlePassParse() {
+        return DubboUrlParser.parse(path);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.benchmark;
+
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Removal diff of one sync event, the former list based subtract against the shipped path: the current
+ * {@link InstanceSnapshot} is built from the event and merged with the stored previous one. 1% of the instances are
+ * replaced between the two snapshots.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=InstanceDiffBenchmark
+ * </pre>
+ *
+ * @author NacosSync
+ * @version $Id: InstanceDiffBenchmark.java, v 0.1 2026-10-18 PM6:50 NacosSync Exp $$
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstanceDiffBenchmark {
+
+    @Param({"300", "3000"})
+    private int instanceCount;
+
+    private Map<String, Long> previousStringSnapshot;
+
+    private List<String> currentStringKeys;
+
+    private InstanceSnapshot previousSnapshot;
+
+    private String[] currentIps;
+
+    @Setup
+    public void setUp() {
+        previousStringSnapshot = new HashMap<>();
+        currentStringKeys = new ArrayList<>();
+        InstanceSnapshot.Builder previousBuilder = InstanceSnapshot.builder(instanceCount);
+        currentIps = new String[instanceCount];
+        int replaced = Math.max(1, instanceCount / 100);
+        for (int i = 0; i < instanceCount; i++) {
+            String previousIp = ip(i);
+            String currentIp = i < replaced ? ip(instanceCount + i) : previousIp;
+            previousStringSnapshot.put(previousIp + ":8080", (long) i);
+            currentStringKeys.add(currentIp + ":8080");
+            previousBuilder.add(previousIp, 8080, i);
+            currentIps[i] = currentIp;
+        }
+        previousSnapshot = previousBuilder.build();
+    }
+
+    @Benchmark
+    public List<InstanceKey> listSubtract() {
+        Collection<String> removedKeys = subtract(previousStringSnapshot.keySet(), currentStringKeys);
+        List<InstanceKey> removed = new ArrayList<>(removedKeys.size());
+        for (String removedKey : removedKeys) {
+            String[] split = removedKey.split(":", -1);
+            removed.add(InstanceKey.of(split[0], Integer.parseInt(split[1])));
+        }
+        return removed;
+    }
+
+    @Benchmark
+    public List<InstanceKey> instanceSnapshotDiff() {
+        InstanceSnapshot.Builder currentBuilder = InstanceSnapshot.builder(instanceCount);
+        for (int i = 0; i < instanceCount; i++) {
+            currentBuilder.add(currentIps[i], 8080, i);
+        }
+        return InstanceSnapshot.diff(previousSnapshot, currentBuilder.build()).getRemoved();
+    }
+
+    /**
+     * the removed util.Collections#subtract
+     */
+    private static <T> Collection<T> subtract(Collection<T> a, Collection<T> b) {
+        List<T> list = new ArrayList<>(a);
+        for (Iterator<T> it = b.iterator(); it.hasNext(); ) {
+            list.remove(it.next());
+        }
+        return list;
+    }
+
+    private static String ip(int i) {
+        return "10." + ((i >> 16) & 0xFF) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.benchmark;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
+import com.alibaba.nacossync.pojo.TaskDecoration;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.RenderedPathCache;
+import com.alibaba.nacossync.util.StringUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Zk paths of one Nacos event, every instance rendered against {@link RenderedPathCache}. 1% of the instances change
+ * their metadata between the events the benchmark alternates. The paths are rendered from the metadata decorated by
+ * {@link TaskDecoration}, as the Nacos to ZooKeeper sync does.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=RenderedPathCacheBenchmark
+ * </pre>
+ *
+ * @author NacosSync
+ * @version $Id: RenderedPathCacheBenchmark.java, v 0.1 2026-10-18 PM11:58 NacosSync Exp $$
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderedPathCacheBenchmark {
+
+    private static final String PROVIDERS_PATH =
+        StringUtils.convertDubboProvidersPath("org.apache.dubbo.demo.DemoService");
+
+    @Param({"300", "3000"})
+    private int instanceCount;
+
+    private List<List<Instance>> events;
+
+    private int eventIndex;
+
+    private RenderedPathCache renderedPathCache;
+
+    private TaskDecoration taskDecoration;
+
+    @Setup
+    public void setUp() {
+        events = new ArrayList<>(2);
+        int changed = Math.max(1, instanceCount / 100);
+        for (int event = 0; event < 2; event++) {
+            List<Instance> instances = new ArrayList<>(instanceCount);
+            for (int i = 0; i < instanceCount; i++) {
+                instances.add(buildInstance(i, i < changed ? "1.0." + event : "1.0.0"));
+            }
+            events.add(instances);
+        }
+        renderedPathCache = new RenderedPathCache();
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId("benchmark-task");
+        taskDO.setSourceClusterId("source-cluster");
+        taskDO.setDestClusterId("dest-cluster");
+        taskDecoration = TaskDecoration.of(taskDO, ClusterTypeEnum.NACOS);
+    }
+
+    @Benchmark
+    public String[] renderAll() {
+        TreeSet<String> paths = new TreeSet<>();
+        for (Instance instance : nextEvent()) {
+            paths.add(render(instance));
+        }
+        return paths.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public String[] renderChanged() throws Exception {
+        return renderedPathCache.render(nextEvent(), taskDecoration, this::render);
+    }
+
+    private List<Instance> nextEvent() {
+        eventIndex ^= 1;
+        return events.get(eventIndex);
+    }
+
+    private String render(Instance instance) {
+        return StringUtils.convertDubboFullPathForZk(taskDecoration.decorate(instance.getMetadata()), PROVIDERS_PATH,
+            instance.getIp(), instance.getPort());
+    }
+
+    private static Instance buildInstance(int i, String version) {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("protocol", "dubbo");
+        metadata.put("interface", "org.apache.dubbo.demo.DemoService");
+        metadata.put("version", version);
+        metadata.put("application", "demo-provider");
+        metadata.put("methods", "sayHello,sayHelloAsync");
+        metadata.put("side", "provider");
+        metadata.put("timestamp", "1700000000000");
+        Instance instance = new Instance();
+        instance.setIp("10." + ((i >> 16) & 0xFF) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF));
+        instance.setPort(20880);
+        instance.setMetadata(metadata);
+        return instance;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.cache;
+
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.dao.ClusterAccessService;
+import com.alibaba.nacossync.exception.SkyWalkerException;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.pojo.model.ClusterDO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * The clusters with their type and connect keys already parsed, so the sync paths never go to the database for them.
+ * The cache is loaded at startup and kept fresh by the cluster processors of this worker, a periodic reconcile with
+ * the database picks up the changes made through other workers.
+ *
+ * @author NacosSync
+ * @version $Id: ClusterMetadataCache.java, v 0.1 2026-10-18 PM8:20 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ClusterMetadataCache {
+
+    @Autowired
+    private ClusterAccessService clusterAccessService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MetricsManager metricsManager;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Value("${nacos.sync.cluster-cache.reconcile-interval-ms:60000}")
+    private long reconcileIntervalMillis;
+
+    private final Map<String, ClusterMetadata> clusterMetadataMap = new ConcurrentHashMap<>();
+
+    /**
+     * bumped whenever a cached cluster is replaced or dropped, so that whatever was derived from it can be rebuilt
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        reconcile();
+        scheduledExecutorService.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMillis,
+            reconcileIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the cached cluster, loaded from the database on a miss
+     * @throws SkyWalkerException if the cluster does not exist
+     */
+    public ClusterMetadata get(String clusterId) {
+        ClusterMetadata clusterMetadata = clusterMetadataMap.get(clusterId);
+        if (clusterMetadata != null) {
+            metricsManager.increment(MetricsStatisticsType.CLUSTER_CACHE_HIT);
+            return clusterMetadata;
+        }
+        metricsManager.increment(MetricsStatisticsType.CLUSTER_CACHE_MISS);
+        ClusterDO clusterDO = clusterAccessService.findByClusterId(clusterId);
+        if (clusterDO == null) {
+            throw new SkyWalkerException("cluster not found, clusterId:" + clusterId);
+        }
+        return refresh(clusterDO);
+    }
+
+    /**
+     * parses the cluster and replaces the cached one
+     */
+    public ClusterMetadata refresh(ClusterDO clusterDO) {
+        ClusterMetadata clusterMetadata = parse(clusterDO);
+        if (clusterMetadataMap.put(clusterDO.getClusterId(), clusterMetadata) != null) {
+            version.incrementAndGet();
+        }
+        return clusterMetadata;
+    }
+
+    public void invalidate(String clusterId) {
+        if (clusterMetadataMap.remove(clusterId) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public int size() {
+        return clusterMetadataMap.size();
+    }
+
+    /**
+     * Brings the cache in line with the database, only the clusters whose row changed are parsed again.
+     */
+    public void reconcile() {
+        try {
+            Set<String> clusterIds = new HashSet<>();
+            for (ClusterDO clusterDO : clusterAccessService.findAll()) {
+                clusterIds.add(clusterDO.getClusterId());
+                ClusterMetadata cached = clusterMetadataMap.get(clusterDO.getClusterId());
+                if (cached == null || !cached.getClusterDO().equals(clusterDO)) {
+                    refresh(clusterDO);
+                }
+            }
+            if (clusterMetadataMap.keySet().retainAll(clusterIds)) {
+                version.incrementAndGet();
+            }
+        } catch (Exception e) {
+            log.warn("reconcile the cluster metadata cache was failed", e);
+        }
+    }
+
+    @SneakyThrows
+    private ClusterMetadata parse(ClusterDO clusterDO) {
+        List<String> connectKeyList = objectMapper.readerForListOf(String.class)
+            .readValue(clusterDO.getConnectKeyList());
+        return new ClusterMetadata(clusterDO, ClusterTypeEnum.valueOf(clusterDO.getClusterType()),
+            CollectionUtils.isEmpty(connectKeyList) ? Collections.emptyList()
+                : Collections.unmodifiableList(connectKeyList));
+    }
+
+    /**
+     * A cluster as it was read from the database, with the parsed type and connect keys.
+     */
+    public static final class ClusterMetadata {
+
+        private final ClusterDO clusterDO;
+
+        private final ClusterTypeEnum clusterType;
+
+        private final List<String> connectKeyList;
+
+        private ClusterMetadata(ClusterDO clusterDO, ClusterTypeEnum clusterType, List<String> connectKeyList) {
+            this.clusterDO = clusterDO;
+            this.clusterType = clusterType;
+            this.connectKeyList = connectKeyList;
+        }
+
+        public ClusterDO getClusterDO() {
+            return clusterDO;
+        }
+
+        public ClusterTypeEnum getClusterType() {
+            return clusterType;
+        }
+
+        public List<String> getConnectKeyList() {
+            return connectKeyList;
+        }
+    }
+}
@@ -18,18 +18,16 @@ package com.alibaba.nacossync.cache;
 
 
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
-import com.alibaba.nacossync.dao.ClusterAccessService;
 import com.alibaba.nacossync.exception.SkyWalkerException;
 import com.alibaba.nacossync.pojo.FinishedTask;
+import com.alibaba.nacossync.pojo.TaskDecoration;
 import com.alibaba.nacossync.pojo.model.ClusterDO;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.alibaba.nacossync.util.SkyWalkerUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
-import lombok.SneakyThrows;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
@@ -43,25 +41,23 @@ import org.springframework.util.StringUtils;
 public class SkyWalkerCacheServices {
 
     @Autowired
-    private ClusterAccessService clusterAccessService;
-
-    @Autowired
-    private ObjectMapper objectMapper;
+    private ClusterMetadataCache clusterMetadataCache;
 
     private static Map<String, FinishedTask> finishedTaskMap = new ConcurrentHashMap<>();
 
+    /**
+     * taskId -> the decoration stamped on the instances the task writes
+     */
+    private final Map<String, TaskDecoration> taskDecorationMap = new ConcurrentHashMap<>();
+
     public String getClusterConnectKey(String clusterId) {
         List<String> allClusterConnectKey = getAllClusterConnectKey(clusterId);
 
         return allClusterConnectKey.get(ThreadLocalRandom.current().nextInt(allClusterConnectKey.size()));
     }
 
-    @SneakyThrows
     public List<String> getAllClusterConnectKey(String clusterId) {
-        ClusterDO clusterDO = clusterAccessService.findByClusterId(clusterId);
-
-        List<String> connectKeyList = objectMapper.readerForListOf(String.class)
-            .readValue(clusterDO.getConnectKeyList());
+        List<String> connectKeyList = clusterMetadataCache.get(clusterId).getConnectKeyList();
 
         if (CollectionUtils.isEmpty(connectKeyList)) {
             throw new SkyWalkerException("getClusterConnectKey empty, clusterId:" + clusterId);
@@ -71,9 +67,30 @@ public class SkyWalkerCacheServices {
 
     public ClusterTypeEnum getClusterType(String clusterId) {
 
-        ClusterDO clusterDOS = clusterAccessService.findByClusterId(clusterId);
+        return clusterMetadataCache.get(clusterId).getClusterType();
+    }
+
+    public ClusterDO getCluster(String clusterId) {
 
-        return ClusterTypeEnum.valueOf(clusterDOS.getClusterType());
+        return clusterMetadataCache.get(clusterId).getClusterDO();
+    }
+
+    /**
+     * The decoration is built once per task, so the instances of a full resync do not query the cluster type again.
+     * It is rebuilt when the task no longer points at the same clusters and group.
+     */
+    public TaskDecoration getTaskDecoration(TaskDO taskDO) {
+        TaskDecoration taskDecoration = taskDecorationMap.get(taskDO.getTaskId());
+        if (taskDecoration != null && taskDecoration.matches(taskDO)) {
+            return taskDecoration;
+        }
+        taskDecoration = TaskDecoration.of(taskDO, getClusterType(taskDO.getSourceClusterId()));
+        taskDecorationMap.put(taskDO.getTaskId(), taskDecoration);
+        return taskDecoration;
+    }
+
+    public void removeTaskDecoration(TaskDO taskDO) {
+        taskDecorationMap.remove(taskDO.getTaskId());
     }
 
     public void addFinishedTask(TaskDO taskDO) {
@@ -86,6 +103,17 @@ public class SkyWalkerCacheServices {
         finishedTaskMap.put(operationId, finishedTask);
     }
 
+    public void removeFinishedTask(TaskDO taskDO) {
+
+        String operationId = SkyWalkerUtil.getOperationId(taskDO);
+
+        if (StringUtils.isEmpty(operationId)) {
+            return;
+        }
+
+        finishedTaskMap.remove(operationId);
+    }
+
     public FinishedTask getFinishedTask(TaskDO taskDO) {
 
         String operationId = SkyWalkerUtil.getOperationId(taskDO);
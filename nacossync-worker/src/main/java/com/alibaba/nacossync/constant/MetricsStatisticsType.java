@@ -21,6 +21,20 @@ public enum MetricsStatisticsType {
 
     DISPATCHER_TASK("nacosSync.dispatcher.task", "从数据库中分发任务"),
 
+    DISPATCHER_QUEUE_SIZE("nacosSync.dispatcher.queue.size", "事件分发队列积压数"),
+
+    DISPATCHER_WAIT_TIME("nacosSync.dispatcher.wait.time", "事件在分发队列中的等待耗时"),
+
+    RECONCILE_PASS_TIME("nacosSync.reconcile.pass.time", "兜底同步单次执行耗时"),
+
+    RECONCILE_LAG("nacosSync.reconcile.lag", "兜底同步实际执行时间相对计划时间的延迟"),
+
+    CLUSTER_CACHE_HIT("nacosSync.cluster.cache.hit", "集群元数据缓存命中数"),
+
+    CLUSTER_CACHE_MISS("nacosSync.cluster.cache.miss", "集群元数据缓存未命中数"),
+
+    ZOOKEEPER_INITIAL_LOAD_TIME("nacosSync.zookeeper.initial.load.time", "ZK同步全部服务时首次加载耗时"),
+
     SYNC_ERROR("nacosSync.sync.task.error", "所有同步执行时的异常"),
 
     DELETE_ERROR("nacosSync.delete.task.error", "所有删除同步执行时的异常");
@@ -63,6 +63,11 @@ public class ClusterAccessService implements PageQueryService<ClusterDO> {
         return clusterRepository.findByClusterId(clusterId);
     }
 
+    public Iterable<ClusterDO> findAll() {
+
+        return clusterRepository.findAll();
+    }
+
     @Override
     public Page<ClusterDO> findPageNoCriteria(Integer pageNum, Integer size) {
 
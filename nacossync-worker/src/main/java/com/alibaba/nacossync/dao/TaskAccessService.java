@@ -68,6 +68,16 @@ public class TaskAccessService implements PageQueryService<TaskDO> {
         return taskRepository.findAll();
     }
 
+    /**
+     * find the tasks modified after the given time, backed by the index on gmt_modified
+     *
+     * @param gmtModified exclusive lower bound in milliseconds
+     */
+    public List<TaskDO> findAllModifiedAfter(long gmtModified) {
+
+        return taskRepository.findAllByGmtModifiedGreaterThan(gmtModified);
+    }
+
     public void addTask(TaskDO taskDO) {
 
         taskRepository.save(taskDO);
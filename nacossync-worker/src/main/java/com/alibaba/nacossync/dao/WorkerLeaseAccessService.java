@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.dao;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.alibaba.nacossync.dao.repository.WorkerLeaseRepository;
+import com.alibaba.nacossync.pojo.model.WorkerLeaseDO;
+
+/**
+ * @author NacosSync
+ * @version $Id: WorkerLeaseAccessService.java, v 0.1 2026-10-18 PM2:15 NacosSync Exp $$
+ */
+@Service
+public class WorkerLeaseAccessService {
+
+    @Autowired
+    private WorkerLeaseRepository workerLeaseRepository;
+
+    /**
+     * create or renew the lease of the worker
+     */
+    public void renew(String workerId, String workerIp, long heartbeatTime) {
+
+        WorkerLeaseDO workerLeaseDO = workerLeaseRepository.findByWorkerId(workerId);
+        if (null == workerLeaseDO) {
+            workerLeaseDO = new WorkerLeaseDO();
+            workerLeaseDO.setWorkerId(workerId);
+        }
+        workerLeaseDO.setWorkerIp(workerIp);
+        workerLeaseDO.setHeartbeatTime(heartbeatTime);
+        workerLeaseRepository.save(workerLeaseDO);
+    }
+
+    public List<WorkerLeaseDO> findAliveLeases(long expireBefore) {
+
+        return workerLeaseRepository.findAllByHeartbeatTimeGreaterThan(expireBefore);
+    }
+
+    public int deleteExpiredLeases(long expireBefore) {
+
+        return workerLeaseRepository.deleteByHeartbeatTimeLessThan(expireBefore);
+    }
+}
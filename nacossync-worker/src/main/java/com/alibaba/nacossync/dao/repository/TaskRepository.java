@@ -42,4 +42,6 @@ public interface TaskRepository extends CrudRepository<TaskDO, Integer>, JpaRepo
     
     List<TaskDO> getAllByWorkerIp(String workerIp);
 
+    List<TaskDO> findAllByGmtModifiedGreaterThan(Long gmtModified);
+
 }
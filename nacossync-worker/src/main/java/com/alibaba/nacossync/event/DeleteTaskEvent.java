@@ -25,7 +25,7 @@ import com.alibaba.nacossync.pojo.model.TaskDO;
  * @version $Id: DeleteTaskEvent.java, v 0.1 2018-09-27 AM2:38 NacosSync Exp $$
  */
 @Data
-public class DeleteTaskEvent {
+public class DeleteTaskEvent implements TaskEvent {
 
     public DeleteTaskEvent(TaskDO taskDO) {
         this.taskDO = taskDO;
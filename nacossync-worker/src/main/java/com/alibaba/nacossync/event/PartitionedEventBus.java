@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.event;
+
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.google.common.eventbus.EventBus;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatches task events onto a fixed number of lanes. The lane is chosen by the task id, so the events of one task
+ * are handled in order while the events of unrelated tasks are handled in parallel. Every lane owns a bounded queue
+ * and a single worker thread, a full queue blocks the poster.
+ *
+ * <p>An event that is already queued or running for the same task and operation is not queued again, because the
+ * timers post the same pending events every few seconds.
+ *
+ * @author NacosSync
+ * @version $Id: PartitionedEventBus.java, v 0.1 2026-10-18 AM10:15 NacosSync Exp $$
+ */
+@Slf4j
+public class PartitionedEventBus {
+
+    private final Lane[] lanes;
+
+    private final Set<String> inFlightEvents = ConcurrentHashMap.newKeySet();
+
+    private final Timer waitTimer = Metrics.timer(MetricsStatisticsType.DISPATCHER_WAIT_TIME.getMetricsName());
+
+    public PartitionedEventBus(int laneCount, int queueCapacity) {
+        if (laneCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("laneCount and queueCapacity must be positive");
+        }
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+            lanes[i].start();
+        }
+    }
+
+    /**
+     * register all the {@code @Subscribe} methods of the listener on every lane
+     */
+    public void register(Object listener) {
+        for (Lane lane : lanes) {
+            lane.eventBus.register(listener);
+        }
+    }
+
+    /**
+     * queue the event on the lane of its task
+     *
+     * @return false if the same event is already queued or running
+     */
+    public boolean post(TaskEvent event) {
+        TaskDO taskDO = event.getTaskDO();
+        if (null == taskDO || null == taskDO.getTaskId()) {
+            log.warn("drop an event without task, event:{}", event);
+            return false;
+        }
+
+        String eventKey = event.getClass().getName() + "@" + taskDO.getTaskId() + "@" + taskDO.getOperationId();
+        if (!inFlightEvents.add(eventKey)) {
+            return false;
+        }
+
+        Lane lane = lanes[Math.floorMod(taskDO.getTaskId().hashCode(), lanes.length)];
+        try {
+            lane.queue.put(new Envelope(event, eventKey, System.nanoTime()));
+        } catch (InterruptedException e) {
+            inFlightEvents.remove(eventKey);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.interrupt();
+        }
+    }
+
+    private static class Envelope {
+
+        private final TaskEvent event;
+
+        private final String eventKey;
+
+        private final long postNanos;
+
+        Envelope(TaskEvent event, String eventKey, long postNanos) {
+            this.event = event;
+            this.eventKey = eventKey;
+            this.postNanos = postNanos;
+        }
+    }
+
+    private class Lane extends Thread {
+
+        private final BlockingQueue<Envelope> queue;
+
+        private final EventBus eventBus;
+
+        Lane(int index, int queueCapacity) {
+            super("SkyWalker-Event-lane-" + index);
+            setDaemon(true);
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.eventBus = new EventBus("lane-" + index);
+            Metrics.gauge(MetricsStatisticsType.DISPATCHER_QUEUE_SIZE.getMetricsName(),
+                Tags.of("lane", String.valueOf(index)), queue, Collection::size);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                Envelope envelope;
+                try {
+                    envelope = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                waitTimer.record(System.nanoTime() - envelope.postNanos, TimeUnit.NANOSECONDS);
+                try {
+                    eventBus.post(envelope.event);
+                } catch (Throwable e) {
+                    log.warn("dispatch event failed, event:{}", envelope.event, e);
+                } finally {
+                    inFlightEvents.remove(envelope.eventKey);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.event;
+
+import lombok.Data;
+
+import com.alibaba.nacossync.pojo.model.TaskDO;
+
+/**
+ * Posted when this worker no longer owns the task, the task stops running here without touching the synced data
+ *
+ * @author NacosSync
+ * @version $Id: ReleaseTaskEvent.java, v 0.1 2026-10-18 PM2:40 NacosSync Exp $$
+ */
+@Data
+public class ReleaseTaskEvent implements TaskEvent {
+
+    public ReleaseTaskEvent(TaskDO taskDO) {
+        this.taskDO = taskDO;
+    }
+
+    private final TaskDO taskDO;
+}
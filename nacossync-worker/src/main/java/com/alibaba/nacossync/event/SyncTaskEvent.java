@@ -25,7 +25,7 @@ import com.alibaba.nacossync.pojo.model.TaskDO;
  * @version $Id: EventModel.java, v 0.1 2018-09-27 AM1:41 NacosSync Exp $$
  */
 @Data
-public class SyncTaskEvent {
+public class SyncTaskEvent implements TaskEvent {
 
     public SyncTaskEvent(TaskDO taskDO) {
         this.taskDO = taskDO;
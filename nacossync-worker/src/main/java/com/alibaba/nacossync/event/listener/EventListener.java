@@ -26,10 +26,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
+import com.alibaba.nacossync.dao.TaskAccessService;
 import com.alibaba.nacossync.event.DeleteTaskEvent;
+import com.alibaba.nacossync.event.PartitionedEventBus;
+import com.alibaba.nacossync.event.ReleaseTaskEvent;
 import com.alibaba.nacossync.event.SyncTaskEvent;
 import com.alibaba.nacossync.extension.SyncManagerService;
-import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 
 /**
@@ -47,11 +49,14 @@ public class EventListener {
     private SyncManagerService syncManagerService;
 
     @Autowired
-    private EventBus eventBus;
+    private PartitionedEventBus eventBus;
 
     @Autowired
     private SkyWalkerCacheServices skyWalkerCacheServices;
 
+    @Autowired
+    private TaskAccessService taskAccessService;
+
     @PostConstruct
     public void register() {
         eventBus.register(this);
@@ -80,6 +85,8 @@ public class EventListener {
         try {
             long start = System.currentTimeMillis();
             if (syncManagerService.delete(deleteTaskEvent.getTaskDO())) {
+                // the row is removed only after the cleanup, so a failed delete can be retried from it
+                taskAccessService.deleteTaskById(deleteTaskEvent.getTaskDO().getTaskId());
                 skyWalkerCacheServices.addFinishedTask(deleteTaskEvent.getTaskDO());
                 metricsManager.record(MetricsStatisticsType.DELETE_TASK_RT, System.currentTimeMillis() - start);
             } else {
@@ -91,4 +98,20 @@ public class EventListener {
 
     }
 
+    @Subscribe
+    public void listenerReleaseTaskEvent(ReleaseTaskEvent releaseTaskEvent) {
+
+        try {
+            if (syncManagerService.release(releaseTaskEvent.getTaskDO())) {
+                // the task is dispatched again if it comes back to this worker
+                skyWalkerCacheServices.removeFinishedTask(releaseTaskEvent.getTaskDO());
+            } else {
+                log.warn("listenerReleaseTaskEvent release failure");
+            }
+        } catch (Exception e) {
+            log.warn("listenerReleaseTaskEvent process error", e);
+        }
+
+    }
+
 }
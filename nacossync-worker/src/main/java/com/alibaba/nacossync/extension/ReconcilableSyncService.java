@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension;
+
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A sync service whose destination can be compared with its source, the {@link ReconcileEngine} periodically diffs
+ * both sides of every running task and repairs the delta, so that a missed watch or a dropped event does not leave
+ * the destination wrong forever.
+ *
+ * @param <S> the instance type of the source cluster
+ * @param <D> the instance type of the destination cluster
+ * @author NacosSync
+ * @version $Id: ReconcilableSyncService.java, v 0.1 2026-10-18 PM4:40 NacosSync Exp $$
+ */
+public interface ReconcilableSyncService<S, D> extends SyncService {
+
+    /**
+     * read the instances the destination cluster should hold
+     *
+     * @param taskDO
+     * @return instances keyed by the same identity as {@link #readDestination(TaskDO)}
+     */
+    Map<String, S> readSource(TaskDO taskDO) throws Exception;
+
+    /**
+     * read the instances this task has synced to the destination cluster
+     *
+     * @param taskDO
+     * @return instances keyed by the same identity as {@link #readSource(TaskDO)}
+     */
+    Map<String, D> readDestination(TaskDO taskDO) throws Exception;
+
+    /**
+     * write a source instance missing from the destination cluster
+     */
+    void repairAdd(TaskDO taskDO, S sourceInstance) throws Exception;
+
+    /**
+     * remove a destination instance that no longer exists in the source cluster
+     */
+    void repairRemove(TaskDO taskDO, D destInstance) throws Exception;
+
+    /**
+     * write all the source instances missing from the destination cluster, override it when the destination
+     * supports a batched write
+     */
+    default void repairAddAll(TaskDO taskDO, Collection<S> sourceInstances) throws Exception {
+        for (S sourceInstance : sourceInstances) {
+            repairAdd(taskDO, sourceInstance);
+        }
+    }
+
+    /**
+     * remove all the stale destination instances, override it when the destination supports a batched write
+     */
+    default void repairRemoveAll(TaskDO taskDO, Collection<D> destInstances) throws Exception {
+        for (D destInstance : destInstances) {
+            repairRemove(taskDO, destInstance);
+        }
+    }
+}
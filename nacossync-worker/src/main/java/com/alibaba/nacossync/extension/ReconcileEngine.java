@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension;
+
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.timer.ReconciliationScheduler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Anti-entropy for every {@link ReconcilableSyncService}: each running task is periodically diffed against its
+ * destination and only the delta is repaired. The number of passes running against the same destination cluster is
+ * bounded by a concurrency budget.
+ *
+ * @author NacosSync
+ * @version $Id: ReconcileEngine.java, v 0.1 2026-10-18 PM4:45 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ReconcileEngine {
+
+    private final ReconciliationScheduler reconciliationScheduler;
+
+    private final MetricsManager metricsManager;
+
+    @Value("${nacos.sync.reconcile.dest-cluster-concurrency:4}")
+    private int destClusterConcurrency;
+
+    private final Map<String, Semaphore> destClusterBudgetMap = new ConcurrentHashMap<>();
+
+    public ReconcileEngine(ReconciliationScheduler reconciliationScheduler, MetricsManager metricsManager) {
+        this.reconciliationScheduler = reconciliationScheduler;
+        this.metricsManager = metricsManager;
+    }
+
+    public <S, D> void register(TaskDO taskDO, ReconcilableSyncService<S, D> syncService) {
+        reconciliationScheduler.schedule(taskDO.getTaskId(), () -> reconcile(taskDO, syncService),
+            taskDO.getSourceClusterId(), taskDO.getDestClusterId());
+    }
+
+    public void unregister(TaskDO taskDO) {
+        reconciliationScheduler.cancel(taskDO.getTaskId());
+    }
+
+    /**
+     * run one anti-entropy pass of the task
+     */
+    public <S, D> void reconcile(TaskDO taskDO, ReconcilableSyncService<S, D> syncService) {
+        Semaphore budget = destClusterBudgetMap.computeIfAbsent(taskDO.getDestClusterId(),
+            key -> new Semaphore(destClusterConcurrency));
+        try {
+            budget.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            // the destination is read first, an instance written to it after this read cannot be mistaken as stale
+            Map<String, D> destInstances = syncService.readDestination(taskDO);
+            Map<String, S> sourceInstances = syncService.readSource(taskDO);
+
+            List<S> missingInstances = new ArrayList<>();
+            for (Map.Entry<String, S> entry : sourceInstances.entrySet()) {
+                if (!destInstances.containsKey(entry.getKey())) {
+                    missingInstances.add(entry.getValue());
+                }
+            }
+            List<D> staleInstances = new ArrayList<>();
+            for (Map.Entry<String, D> entry : destInstances.entrySet()) {
+                if (!sourceInstances.containsKey(entry.getKey())) {
+                    staleInstances.add(entry.getValue());
+                }
+            }
+            if (!missingInstances.isEmpty()) {
+                syncService.repairAddAll(taskDO, missingInstances);
+            }
+            if (!staleInstances.isEmpty()) {
+                syncService.repairRemoveAll(taskDO, staleInstances);
+            }
+            if (!missingInstances.isEmpty() || !staleInstances.isEmpty()) {
+                log.info("reconcile task repaired the destination, taskId:{}, added:{}, removed:{}",
+                    taskDO.getTaskId(), missingInstances.size(), staleInstances.size());
+            }
+        } catch (Exception e) {
+            log.error("reconcile task was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+        } finally {
+            budget.release();
+        }
+    }
+}
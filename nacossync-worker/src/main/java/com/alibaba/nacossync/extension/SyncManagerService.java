@@ -15,6 +15,7 @@ package com.alibaba.nacossync.extension;
 import static com.alibaba.nacossync.util.SkyWalkerUtil.generateSyncKey;
 
 import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacossync.cache.ClusterMetadataCache;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
@@ -37,24 +38,53 @@ public class SyncManagerService implements InitializingBean, ApplicationContextA
 
     protected final SkyWalkerCacheServices skyWalkerCacheServices;
 
+    private final ReconcileEngine reconcileEngine;
+
+    private final ClusterMetadataCache clusterMetadataCache;
+
     private ConcurrentHashMap<String, SyncService> syncServiceMap = new ConcurrentHashMap<String, SyncService>();
 
+    /**
+     * taskId -> the resolved context of the task, so that a dispatch does not resolve the cluster types again
+     */
+    private final ConcurrentHashMap<String, SyncTaskContext> taskContextMap = new ConcurrentHashMap<>();
+
     private ApplicationContext applicationContext;
 
     public SyncManagerService(
-        SkyWalkerCacheServices skyWalkerCacheServices) {
+        SkyWalkerCacheServices skyWalkerCacheServices, ReconcileEngine reconcileEngine,
+        ClusterMetadataCache clusterMetadataCache) {
         this.skyWalkerCacheServices = skyWalkerCacheServices;
+        this.reconcileEngine = reconcileEngine;
+        this.clusterMetadataCache = clusterMetadataCache;
     }
 
     public boolean delete(TaskDO taskDO) throws NacosException {
 
-        return getSyncService(taskDO.getSourceClusterId(), taskDO.getDestClusterId()).delete(taskDO);
+        reconcileEngine.unregister(taskDO);
+        boolean deleted = getTaskContext(taskDO).getSyncService().delete(taskDO);
+        removeTaskContext(taskDO);
+        return deleted;
 
     }
 
     public boolean sync(TaskDO taskDO) {
 
-        return getSyncService(taskDO.getSourceClusterId(), taskDO.getDestClusterId()).sync(taskDO);
+        SyncService syncService = getTaskContext(taskDO).getSyncService();
+        boolean synced = syncService.sync(taskDO);
+        if (synced && syncService instanceof ReconcilableSyncService) {
+            reconcileEngine.register(taskDO, (ReconcilableSyncService<?, ?>) syncService);
+        }
+        return synced;
+
+    }
+
+    public boolean release(TaskDO taskDO) {
+
+        reconcileEngine.unregister(taskDO);
+        boolean released = getTaskContext(taskDO).getSyncService().release(taskDO);
+        removeTaskContext(taskDO);
+        return released;
 
     }
 
@@ -73,6 +103,28 @@ public class SyncManagerService implements InitializingBean, ApplicationContextA
         this.applicationContext = applicationContext;
     }
 
+    /**
+     * The context is resolved on the first dispatch of the task and reused until the task moves to other clusters or
+     * the cluster metadata changes.
+     */
+    public SyncTaskContext getTaskContext(TaskDO taskDO) {
+        long clusterVersion = clusterMetadataCache.getVersion();
+        SyncTaskContext taskContext = taskContextMap.get(taskDO.getTaskId());
+        if (taskContext != null && taskContext.isValidFor(taskDO, clusterVersion)) {
+            return taskContext;
+        }
+        skyWalkerCacheServices.removeTaskDecoration(taskDO);
+        taskContext = new SyncTaskContext(getSyncService(taskDO.getSourceClusterId(), taskDO.getDestClusterId()),
+            skyWalkerCacheServices.getTaskDecoration(taskDO), clusterVersion);
+        taskContextMap.put(taskDO.getTaskId(), taskContext);
+        return taskContext;
+    }
+
+    private void removeTaskContext(TaskDO taskDO) {
+        taskContextMap.remove(taskDO.getTaskId());
+        skyWalkerCacheServices.removeTaskDecoration(taskDO);
+    }
+
     public SyncService getSyncService(String sourceClusterId, String destClusterId) {
 
         ClusterTypeEnum sourceClusterType = this.skyWalkerCacheServices.getClusterType(sourceClusterId);
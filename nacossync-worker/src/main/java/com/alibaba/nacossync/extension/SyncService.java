@@ -39,6 +39,17 @@ public interface SyncService {
      */
     boolean sync(TaskDO taskDO);
 
+    /**
+     * stop running the task on this worker without removing the synced instances, called when the task is handed
+     * over to another worker
+     *
+     * @param taskDO
+     * @return
+     */
+    default boolean release(TaskDO taskDO) {
+        return true;
+    }
+
     /**
      * Determines that the current instance data is from another source cluster
      */
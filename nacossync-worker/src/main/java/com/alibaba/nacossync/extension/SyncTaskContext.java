@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension;
+
+import com.alibaba.nacossync.pojo.TaskDecoration;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+
+/**
+ * What a task resolves to, built on its first dispatch and reused by the following ones: the sync service for its
+ * cluster types and the decoration of the instances it writes.
+ *
+ * @author NacosSync
+ * @version $Id: SyncTaskContext.java, v 0.1 2026-10-18 PM9:00 NacosSync Exp $$
+ */
+public final class SyncTaskContext {
+
+    private final SyncService syncService;
+
+    private final TaskDecoration taskDecoration;
+
+    /**
+     * the version of the cluster metadata cache the context was resolved against
+     */
+    private final long clusterVersion;
+
+    SyncTaskContext(SyncService syncService, TaskDecoration taskDecoration, long clusterVersion) {
+        this.syncService = syncService;
+        this.taskDecoration = taskDecoration;
+        this.clusterVersion = clusterVersion;
+    }
+
+    public SyncService getSyncService() {
+        return syncService;
+    }
+
+    public TaskDecoration getTaskDecoration() {
+        return taskDecoration;
+    }
+
+    /**
+     * whether the context still describes the task, it does not once the task moved to other clusters or a cluster
+     * was changed
+     */
+    boolean isValidFor(TaskDO taskDO, long currentClusterVersion) {
+        return clusterVersion == currentClusterVersion && taskDecoration.matches(taskDO);
+    }
+}
@@ -13,69 +13,198 @@
 package com.alibaba.nacossync.extension.eureka;
 
 import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
-import lombok.extern.slf4j.Slf4j;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
 
 /**
+ * Heartbeats of all instances synced to the Eureka clusters, shared by every {@link EurekaNamingService}. The beats sit
+ * in a hashed timing wheel turned by one thread: an instance beats once per renewal interval of its lease, its first
+ * beat is offset by the hash of its id, so the beats are spread evenly over the interval instead of sent in bursts.
+ * Due beats are sent by a small fixed pool with a bound on the requests in flight, a beat finding no permit is moved
+ * to the next tick. An instance the server no longer knows, answered with 404, is registered again.
+ *
  * @author liu jun jie
  * @date 2019-06-26
  */
 @Slf4j
+@Service
 public class EurekaBeatReactor {
-    private ScheduledExecutorService executorService;
-
-    private volatile long clientBeatInterval = 5 * 1000;
-    private final Map<String, InstanceInfo> eurekaBeat = new ConcurrentHashMap<>();
-    private EurekaHttpClient eurekaHttpClient;
-
-    public EurekaBeatReactor(EurekaHttpClient eurekaHttpClient) {
-        this.eurekaHttpClient = eurekaHttpClient;
-        executorService = new ScheduledThreadPoolExecutor(30, r -> {
-            Thread thread = new Thread(r);
-            thread.setDaemon(true);
-            thread.setName("com.alibaba.nacossync.eureka.beat.sender");
-            return thread;
-        });
-
-        executorService.schedule(new BeatProcessor(), 0, TimeUnit.SECONDS);
+
+    @Value("${nacos.sync.eureka-beat.tick-ms:100}")
+    private long tickMs;
+
+    /**
+     * The number of buckets of the wheel, a power of two
+     */
+    @Value("${nacos.sync.eureka-beat.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${nacos.sync.eureka-beat.send-threads:8}")
+    private int sendThreads;
+
+    /**
+     * The maximum number of heartbeat requests outstanding over all Eureka clusters
+     */
+    @Value("${nacos.sync.eureka-beat.max-in-flight:64}")
+    private int maxInFlight;
+
+    /**
+     * beats added by other threads, moved into the wheel on the next tick
+     */
+    private final Queue<Beat> addedBeats = new ConcurrentLinkedQueue<>();
+
+    /**
+     * only touched by the tick thread
+     */
+    private Queue<Beat>[] wheel;
+
+    private long tick;
+
+    private Semaphore inFlight;
+
+    private ScheduledExecutorService tickExecutor;
+
+    private ExecutorService sendExecutor;
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        wheel = new Queue[Integer.highestOneBit(Math.max(wheelSize, 1) * 2 - 1)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+        inFlight = new Semaphore(maxInFlight);
+        sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder()
+            .namingPattern("com.alibaba.nacossync.eureka.beat.sender-%d").daemon(true).build());
+        tickExecutor = new ScheduledThreadPoolExecutor(1, new BasicThreadFactory.Builder()
+            .namingPattern("com.alibaba.nacossync.eureka.beat.wheel").daemon(true).build());
+        tickExecutor.scheduleAtFixedRate(this::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
     }
 
-    public void addInstance(String key, InstanceInfo value) {
-        this.eurekaBeat.put(key, value);
+    @PreDestroy
+    public void shutdown() {
+        tickExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
     }
 
-    public void removeInstance(String key) {
-        log.debug("[BEAT] removing beat: {} to beat map.", key);
-        this.eurekaBeat.remove(key);
+    /**
+     * Starts the heartbeat of the instance, it runs until the returned beat is cancelled
+     */
+    public Beat addInstance(EurekaHttpClient eurekaHttpClient, InstanceInfo instanceInfo) {
+        Beat beat = new Beat(eurekaHttpClient, instanceInfo);
+        addedBeats.add(beat);
+        return beat;
     }
 
-    class BeatProcessor implements Runnable {
-
-        @Override
-        public void run() {
-            try {
-                for (Map.Entry<String, InstanceInfo> entry : eurekaBeat.entrySet()) {
-                    InstanceInfo instanceInfo = entry.getValue();
-                    executorService.schedule(() -> {
-                        log.debug("[BEAT] adding beat: {} to beat map.", instanceInfo.getId());
-                        eurekaHttpClient.sendHeartBeat(instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, InstanceInfo.InstanceStatus.UP);
-                    }, 0, TimeUnit.MILLISECONDS);
+    public void removeInstance(Beat beat) {
+        log.debug("[BEAT] removing beat: {} from beat wheel.", beat.instanceInfo.getId());
+        beat.cancelled = true;
+    }
+
+    /**
+     * @return the renewal interval of the lease of the instance in ticks
+     */
+    private long intervalTicks(InstanceInfo instanceInfo) {
+        LeaseInfo leaseInfo = instanceInfo.getLeaseInfo();
+        int renewalIntervalInSecs = null == leaseInfo || leaseInfo.getRenewalIntervalInSecs() <= 0
+            ? LeaseInfo.DEFAULT_LEASE_RENEWAL_INTERVAL : leaseInfo.getRenewalIntervalInSecs();
+        return Math.max(1, TimeUnit.SECONDS.toMillis(renewalIntervalInSecs) / tickMs);
+    }
+
+    private void schedule(Beat beat, long deadline) {
+        beat.deadline = deadline;
+        wheel[(int) (deadline & (wheel.length - 1))].add(beat);
+    }
+
+    /**
+     * Turns the wheel by one tick and sends the due beats of the bucket
+     */
+    void advance() {
+        try {
+            tick++;
+            for (Beat beat = addedBeats.poll(); null != beat; beat = addedBeats.poll()) {
+                long intervalTicks = intervalTicks(beat.instanceInfo);
+                beat.intervalTicks = intervalTicks;
+                schedule(beat, tick + 1 + Math.floorMod(beat.instanceInfo.getId().hashCode(), intervalTicks));
+            }
+
+            Queue<Beat> bucket = wheel[(int) (tick & (wheel.length - 1))];
+            for (int i = bucket.size(); i > 0; i--) {
+                Beat beat = bucket.poll();
+                if (beat.cancelled) {
+                    continue;
+                }
+                if (beat.deadline > tick) {
+                    // due in a later round of the wheel
+                    bucket.add(beat);
+                } else if (inFlight.tryAcquire()) {
+                    sendExecutor.execute(() -> send(beat));
+                    schedule(beat, tick + beat.intervalTicks);
+                } else {
+                    schedule(beat, tick + 1);
                 }
-            } catch (Exception e) {
-                log.error("[CLIENT-BEAT] Exception while scheduling beat.", e);
-            } finally {
-                executorService.schedule(this, clientBeatInterval, TimeUnit.MILLISECONDS);
             }
+        } catch (Exception e) {
+            log.error("[CLIENT-BEAT] Exception while turning the beat wheel.", e);
         }
     }
-}
 
+    private void send(Beat beat) {
+        InstanceInfo instanceInfo = beat.instanceInfo;
+        try {
+            if (beat.cancelled) {
+                return;
+            }
+            EurekaHttpResponse<InstanceInfo> response = beat.eurekaHttpClient.sendHeartBeat(
+                instanceInfo.getAppName(), instanceInfo.getId(), instanceInfo, InstanceInfo.InstanceStatus.UP);
+            if (HttpStatus.NOT_FOUND.value() == response.getStatusCode()) {
+                log.info("[BEAT] instance {} is unknown to eureka, registered again.", instanceInfo.getId());
+                beat.eurekaHttpClient.register(instanceInfo);
+            }
+        } catch (Exception e) {
+            log.warn("[CLIENT-BEAT] heartbeat of instance {} failed.", instanceInfo.getId(), e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * The heartbeat of one instance, scheduled on the wheel until it is cancelled
+     */
+    public static final class Beat {
+
+        private final EurekaHttpClient eurekaHttpClient;
+
+        private final InstanceInfo instanceInfo;
+
+        private volatile boolean cancelled;
 
+        private long intervalTicks;
 
+        private long deadline;
+
+        private Beat(EurekaHttpClient eurekaHttpClient, InstanceInfo instanceInfo) {
+            this.eurekaHttpClient = eurekaHttpClient;
+            this.instanceInfo = instanceInfo;
+        }
+    }
+}
@@ -19,7 +19,9 @@ import com.netflix.discovery.shared.transport.EurekaHttpResponse;
 import org.springframework.http.HttpStatus;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author liu jun jie
@@ -28,24 +30,42 @@ import java.util.Objects;
 public class EurekaNamingService {
     private EurekaHttpClient eurekaHttpClient;
     private EurekaBeatReactor beatReactor;
+    /**
+     * the running heartbeats of the instances, instance id -> beat
+     */
+    private final Map<String, EurekaBeatReactor.Beat> beats = new ConcurrentHashMap<>();
 
 
-    public EurekaNamingService(EurekaHttpClient eurekaHttpClient) {
+    public EurekaNamingService(EurekaHttpClient eurekaHttpClient, EurekaBeatReactor beatReactor) {
         this.eurekaHttpClient = eurekaHttpClient;
-        beatReactor = new EurekaBeatReactor(eurekaHttpClient);
+        this.beatReactor = beatReactor;
     }
 
     public void registerInstance(InstanceInfo instanceInfo) {
         EurekaHttpResponse<Void> response = eurekaHttpClient.register(instanceInfo);
         if (Objects.requireNonNull(HttpStatus.resolve(response.getStatusCode())).is2xxSuccessful()) {
-            beatReactor.addInstance(instanceInfo.getId(), instanceInfo);
+            EurekaBeatReactor.Beat previous =
+                beats.put(instanceInfo.getId(), beatReactor.addInstance(eurekaHttpClient, instanceInfo));
+            if (previous != null) {
+                beatReactor.removeInstance(previous);
+            }
         }
     }
 
     public void deregisterInstance(InstanceInfo instanceInfo) {
         EurekaHttpResponse<Void> response = eurekaHttpClient.cancel(instanceInfo.getAppName(), instanceInfo.getId());
         if (Objects.requireNonNull(HttpStatus.resolve(response.getStatusCode())).is2xxSuccessful()) {
-            beatReactor.removeInstance(instanceInfo.getId());
+            stopHeartbeat(instanceInfo);
+        }
+    }
+
+    /**
+     * stop sending the heartbeat of the instance without cancelling it
+     */
+    public void stopHeartbeat(InstanceInfo instanceInfo) {
+        EurekaBeatReactor.Beat beat = beats.remove(instanceInfo.getId());
+        if (beat != null) {
+            beatReactor.removeInstance(beat);
         }
     }
 
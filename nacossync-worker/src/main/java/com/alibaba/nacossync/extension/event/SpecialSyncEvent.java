@@ -12,6 +12,7 @@
  */
 package com.alibaba.nacossync.extension.event;
 
+import com.alibaba.nacossync.event.TaskEvent;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import lombok.Data;
 
@@ -22,7 +23,7 @@ import java.util.function.Consumer;
  * @date: 2019-01-12 22:28
  */
 @Data
-public class SpecialSyncEvent {
+public class SpecialSyncEvent implements TaskEvent {
     private TaskDO taskDO;
     private Consumer<TaskDO> syncAction;
 }
@@ -16,9 +16,9 @@
  */
 package com.alibaba.nacossync.extension.event.listener;
 
+import com.alibaba.nacossync.event.PartitionedEventBus;
 import com.alibaba.nacossync.extension.event.SpecialSyncEvent;
 import com.alibaba.nacossync.pojo.model.TaskDO;
-import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,7 +35,7 @@ import java.util.function.Consumer;
 @Slf4j
 public class SpecialSyncEventListener {
     @Autowired
-    private EventBus eventBus;
+    private PartitionedEventBus eventBus;
 
     @PostConstruct
     public void init() {
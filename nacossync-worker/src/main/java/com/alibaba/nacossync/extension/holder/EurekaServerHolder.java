@@ -12,11 +12,13 @@
  */
 package com.alibaba.nacossync.extension.holder;
 
+import com.alibaba.nacossync.extension.eureka.EurekaBeatReactor;
 import com.alibaba.nacossync.extension.eureka.EurekaNamingService;
 import com.netflix.discovery.shared.resolver.DefaultEndpoint;
 import com.netflix.discovery.shared.resolver.EurekaEndpoint;
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.netflix.eureka.http.RestTemplateTransportClientFactory;
 import org.springframework.stereotype.Service;
 
@@ -30,12 +32,16 @@ import java.util.function.Supplier;
 @Service
 @Slf4j
 public class EurekaServerHolder extends AbstractServerHolderImpl<EurekaNamingService> {
+
+    @Autowired
+    private EurekaBeatReactor eurekaBeatReactor;
+
     @Override
     EurekaNamingService createServer(String clusterId, Supplier<String> serverAddressSupplier) throws Exception {
         RestTemplateTransportClientFactory restTemplateTransportClientFactory =
                 new RestTemplateTransportClientFactory();
         EurekaEndpoint eurekaEndpoint = new DefaultEndpoint(serverAddressSupplier.get());
         EurekaHttpClient eurekaHttpClient = restTemplateTransportClientFactory.newClient(eurekaEndpoint);
-        return new EurekaNamingService(eurekaHttpClient);
+        return new EurekaNamingService(eurekaHttpClient, eurekaBeatReactor);
     }
 }
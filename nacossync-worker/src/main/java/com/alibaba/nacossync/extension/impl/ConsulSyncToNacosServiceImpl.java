@@ -18,25 +18,29 @@ import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
-import com.alibaba.nacossync.constant.SkyWalkerConstants;
 import com.alibaba.nacossync.extension.SyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.event.SpecialSyncEventBus;
 import com.alibaba.nacossync.extension.holder.ConsulServerHolder;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.alibaba.nacossync.util.ConsulUtils;
+import com.alibaba.nacossync.util.InstanceDiff;
+import com.alibaba.nacossync.util.InstanceFingerprint;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
 import com.alibaba.nacossync.util.NacosUtils;
 import com.ecwid.consul.v1.ConsulClient;
 import com.ecwid.consul.v1.QueryParams;
 import com.ecwid.consul.v1.Response;
 import com.ecwid.consul.v1.health.model.HealthService;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -60,14 +64,22 @@ public class ConsulSyncToNacosServiceImpl implements SyncService {
 
     private final SpecialSyncEventBus specialSyncEventBus;
 
+    private final NacosBatchWriter nacosBatchWriter;
+
+    /**
+     * fingerprints of the instances written to the destination, taskId -> instance snapshot
+     */
+    private final Map<String, InstanceSnapshot> instanceFingerprintMap = new ConcurrentHashMap<>();
+
     @Autowired
     public ConsulSyncToNacosServiceImpl(ConsulServerHolder consulServerHolder,
         SkyWalkerCacheServices skyWalkerCacheServices, NacosServerHolder nacosServerHolder,
-        SpecialSyncEventBus specialSyncEventBus) {
+        SpecialSyncEventBus specialSyncEventBus, NacosBatchWriter nacosBatchWriter) {
         this.consulServerHolder = consulServerHolder;
         this.skyWalkerCacheServices = skyWalkerCacheServices;
         this.nacosServerHolder = nacosServerHolder;
         this.specialSyncEventBus = specialSyncEventBus;
+        this.nacosBatchWriter = nacosBatchWriter;
     }
 
     @Override
@@ -75,6 +87,7 @@ public class ConsulSyncToNacosServiceImpl implements SyncService {
 
         try {
             specialSyncEventBus.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
 
             NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
             List<Instance> allInstances = destNamingService.getAllInstances(taskDO.getServiceName(),
@@ -103,9 +116,11 @@ public class ConsulSyncToNacosServiceImpl implements SyncService {
             Response<List<HealthService>> response =
                 consulClient.getHealthServices(taskDO.getServiceName(), true, QueryParams.DEFAULT);
             List<HealthService> healthServiceList = response.getValue();
-            Set<String> instanceKeys = new HashSet<>();
-            overrideAllInstance(taskDO, destNamingService, healthServiceList, instanceKeys);
-            cleanAllOldInstance(taskDO, destNamingService, instanceKeys);
+            List<Instance> allInstances = destNamingService.getAllInstances(taskDO.getServiceName(),
+                NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()));
+            InstanceSnapshot latestSnapshot =
+                overrideAllInstance(taskDO, destNamingService, healthServiceList, allInstances);
+            cleanAllOldInstance(taskDO, destNamingService, allInstances, latestSnapshot);
             specialSyncEventBus.subscribe(taskDO, this::sync);
         } catch (Exception e) {
             log.error("Sync task from consul to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
@@ -115,12 +130,31 @@ public class ConsulSyncToNacosServiceImpl implements SyncService {
         return true;
     }
 
-    private void cleanAllOldInstance(TaskDO taskDO, NamingService destNamingService, Set<String> instanceKeys)
-        throws NacosException {
-        List<Instance> allInstances = destNamingService.getAllInstances(taskDO.getServiceName());
+    /**
+     * Only the local state is dropped, the synced instances stay in the destination and the new owner takes them
+     * over with its own heartbeats
+     */
+    @Override
+    public boolean release(TaskDO taskDO) {
+        try {
+            specialSyncEventBus.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
+            NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+            NacosUtils.stopHeartbeats(destNamingService, taskDO.getServiceName(), taskDO.getGroupName(),
+                taskDO.getSourceClusterId());
+        } catch (Exception e) {
+            log.error("release task from consul to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    private void cleanAllOldInstance(TaskDO taskDO, NamingService destNamingService, List<Instance> allInstances,
+        InstanceSnapshot latestSnapshot) throws NacosException {
         for (Instance instance : allInstances) {
             if (needDelete(instance.getMetadata(), taskDO)
-                && !instanceKeys.contains(composeInstanceKey(instance.getIp(), instance.getPort()))) {
+                && !latestSnapshot.contains(instance.getIp(), instance.getPort())) {
 
                 destNamingService.deregisterInstance(taskDO.getServiceName(),
                     NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), instance.getIp(), instance.getPort());
@@ -128,34 +162,41 @@ public class ConsulSyncToNacosServiceImpl implements SyncService {
         }
     }
 
-    private void overrideAllInstance(TaskDO taskDO, NamingService destNamingService,
-        List<HealthService> healthServiceList, Set<String> instanceKeys) throws NacosException {
+    private InstanceSnapshot overrideAllInstance(TaskDO taskDO, NamingService destNamingService,
+        List<HealthService> healthServiceList, List<Instance> allInstances) throws NacosException {
+        InstanceSnapshot.Builder snapshotBuilder = InstanceSnapshot.builder(healthServiceList.size());
+        Map<InstanceKey, Instance> syncInstances = new HashMap<>(healthServiceList.size());
         for (HealthService healthService : healthServiceList) {
             if (needSync(ConsulUtils.transferMetadata(healthService.getService().getTags()))) {
-                destNamingService.registerInstance(taskDO.getServiceName(),
-                    NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()),
-                    buildSyncInstance(healthService, taskDO));
-                instanceKeys.add(composeInstanceKey(healthService.getService().getAddress(),
-                    healthService.getService().getPort()));
+                Instance syncInstance = buildSyncInstance(healthService, taskDO);
+                InstanceKey instanceKey = InstanceKey.of(syncInstance);
+                snapshotBuilder.add(syncInstance.getIp(), syncInstance.getPort(), InstanceFingerprint.of(syncInstance));
+                syncInstances.put(instanceKey, syncInstance);
             }
         }
+        // 只注册新增或者发生变化的实例, 以及目标集群中丢失的实例
+        InstanceSnapshot latestSnapshot = snapshotBuilder.build();
+        InstanceDiff<InstanceKey> instanceDiff = InstanceSnapshot.diff(
+            instanceFingerprintMap.getOrDefault(taskDO.getTaskId(), InstanceSnapshot.EMPTY), latestSnapshot);
+        List<Instance> waitingToRegister = new ArrayList<>(instanceDiff.getAdded().size()
+            + instanceDiff.getChanged().size());
+        for (InstanceKey instanceKey : NacosUtils.getUpsertedOrMissing(instanceDiff, syncInstances.keySet(),
+            allInstances, taskDO.getSourceClusterId())) {
+            waitingToRegister.add(syncInstances.get(instanceKey));
+        }
+        nacosBatchWriter.registerInstances(destNamingService, taskDO.getServiceName(),
+            NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), waitingToRegister);
+        instanceFingerprintMap.put(taskDO.getTaskId(), latestSnapshot);
+        return latestSnapshot;
     }
 
     private Instance buildSyncInstance(HealthService instance, TaskDO taskDO) {
         Instance temp = new Instance();
         temp.setIp(instance.getService().getAddress());
         temp.setPort(instance.getService().getPort());
-        Map<String, String> metaData = new HashMap<>(ConsulUtils.transferMetadata(instance.getService().getTags()));
-        metaData.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId());
-        metaData.put(SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode());
-        metaData.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId());
-        temp.setMetadata(metaData);
+        temp.setMetadata(skyWalkerCacheServices.getTaskDecoration(taskDO)
+            .decorate(ConsulUtils.transferMetadata(instance.getService().getTags())));
         return temp;
     }
 
-    private String composeInstanceKey(String ip, int port) {
-        return ip + ":" + port;
-    }
-
 }
@@ -18,20 +18,26 @@ import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
-import com.alibaba.nacossync.constant.SkyWalkerConstants;
 import com.alibaba.nacossync.extension.SyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.eureka.EurekaNamingService;
 import com.alibaba.nacossync.extension.event.SpecialSyncEventBus;
 import com.alibaba.nacossync.extension.holder.EurekaServerHolder;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.InstanceDiff;
+import com.alibaba.nacossync.util.InstanceFingerprint;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
 import com.alibaba.nacossync.util.NacosUtils;
 import com.netflix.appinfo.InstanceInfo;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.CollectionUtils;
@@ -55,15 +61,23 @@ public class EurekaSyncToNacosServiceImpl implements SyncService {
 
     private final SpecialSyncEventBus specialSyncEventBus;
 
+    private final NacosBatchWriter nacosBatchWriter;
+
+    /**
+     * fingerprints of the instances written to the destination, taskId -> instance snapshot
+     */
+    private final Map<String, InstanceSnapshot> instanceFingerprintMap = new ConcurrentHashMap<>();
+
     @Autowired
     public EurekaSyncToNacosServiceImpl(EurekaServerHolder eurekaServerHolder,
         SkyWalkerCacheServices skyWalkerCacheServices, NacosServerHolder nacosServerHolder,
-        SpecialSyncEventBus specialSyncEventBus, MetricsManager metricsManager) {
+        SpecialSyncEventBus specialSyncEventBus, MetricsManager metricsManager, NacosBatchWriter nacosBatchWriter) {
         this.eurekaServerHolder = eurekaServerHolder;
         this.skyWalkerCacheServices = skyWalkerCacheServices;
         this.nacosServerHolder = nacosServerHolder;
         this.specialSyncEventBus = specialSyncEventBus;
         this.metricsManager = metricsManager;
+        this.nacosBatchWriter = nacosBatchWriter;
     }
 
     @Override
@@ -71,6 +85,7 @@ public class EurekaSyncToNacosServiceImpl implements SyncService {
 
         try {
             specialSyncEventBus.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
 
             EurekaNamingService eurekaNamingService = eurekaServerHolder.get(taskDO.getSourceClusterId());
             NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
@@ -100,12 +115,13 @@ public class EurekaSyncToNacosServiceImpl implements SyncService {
             if (CollectionUtils.isEmpty(eurekaInstances)) {
                 // Clear all instance from Nacos
                 deleteAllInstance(taskDO, destNamingService, nacosInstances);
+                instanceFingerprintMap.remove(taskDO.getTaskId());
             } else {
                 if (!CollectionUtils.isEmpty(nacosInstances)) {
                     // Remove invalid instance from Nacos
                     removeInvalidInstance(taskDO, destNamingService, eurekaInstances, nacosInstances);
                 }
-                addValidInstance(taskDO, destNamingService, eurekaInstances);
+                addValidInstance(taskDO, destNamingService, eurekaInstances, nacosInstances);
             }
             specialSyncEventBus.subscribe(taskDO, this::sync);
         } catch (Exception e) {
@@ -116,17 +132,54 @@ public class EurekaSyncToNacosServiceImpl implements SyncService {
         return true;
     }
 
-    private void addValidInstance(TaskDO taskDO, NamingService destNamingService, List<InstanceInfo> eurekaInstances)
-        throws NacosException {
+    /**
+     * Only the local state is dropped, the synced instances stay in the destination and the new owner takes them
+     * over with its own heartbeats
+     */
+    @Override
+    public boolean release(TaskDO taskDO) {
+        try {
+            specialSyncEventBus.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
+            NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+            NacosUtils.stopHeartbeats(destNamingService, taskDO.getServiceName(), taskDO.getGroupName(),
+                taskDO.getSourceClusterId());
+        } catch (Exception e) {
+            log.error("release task from eureka to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    private void addValidInstance(TaskDO taskDO, NamingService destNamingService, List<InstanceInfo> eurekaInstances,
+        List<Instance> nacosInstances) throws NacosException {
+        InstanceSnapshot.Builder snapshotBuilder = InstanceSnapshot.builder(eurekaInstances.size());
+        Map<InstanceKey, Instance> syncInstances = new HashMap<>(eurekaInstances.size());
         for (InstanceInfo instance : eurekaInstances) {
             if (needSync(instance.getMetadata())) {
-                log.info("Add service instance from Eureka, serviceName={}, Ip={}, port={}",
-                    instance.getAppName(), instance.getIPAddr(), instance.getPort());
-                destNamingService.registerInstance(taskDO.getServiceName(),
-                    NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), buildSyncInstance(instance,
-                        taskDO));
+                Instance syncInstance = buildSyncInstance(instance, taskDO);
+                InstanceKey instanceKey = InstanceKey.of(syncInstance);
+                snapshotBuilder.add(syncInstance.getIp(), syncInstance.getPort(), InstanceFingerprint.of(syncInstance));
+                syncInstances.put(instanceKey, syncInstance);
             }
         }
+        // Only the new or changed instances are registered, and the ones the destination lost
+        InstanceSnapshot latestSnapshot = snapshotBuilder.build();
+        InstanceDiff<InstanceKey> instanceDiff = InstanceSnapshot.diff(
+            instanceFingerprintMap.getOrDefault(taskDO.getTaskId(), InstanceSnapshot.EMPTY), latestSnapshot);
+        List<Instance> waitingToRegister = new ArrayList<>(instanceDiff.getAdded().size()
+            + instanceDiff.getChanged().size());
+        for (InstanceKey instanceKey : NacosUtils.getUpsertedOrMissing(instanceDiff, syncInstances.keySet(),
+            nacosInstances, taskDO.getSourceClusterId())) {
+            Instance syncInstance = syncInstances.get(instanceKey);
+            log.info("Add service instance from Eureka, serviceName={}, Ip={}, port={}",
+                syncInstance.getServiceName(), syncInstance.getIp(), syncInstance.getPort());
+            waitingToRegister.add(syncInstance);
+        }
+        nacosBatchWriter.registerInstances(destNamingService, taskDO.getServiceName(),
+            NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), waitingToRegister);
+        instanceFingerprintMap.put(taskDO.getTaskId(), latestSnapshot);
     }
 
     private void deleteAllInstanceFromEureka(TaskDO taskDO, NamingService destNamingService,
@@ -181,12 +234,7 @@ public class EurekaSyncToNacosServiceImpl implements SyncService {
         temp.setServiceName(instance.getAppName());
         temp.setHealthy(true);
 
-        Map<String, String> metaData = new HashMap<>(instance.getMetadata());
-        metaData.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId());
-        metaData.put(SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode());
-        metaData.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId());
-        temp.setMetadata(metaData);
+        temp.setMetadata(skyWalkerCacheServices.getTaskDecoration(taskDO).decorate(instance.getMetadata()));
         return temp;
     }
 
@@ -13,20 +13,22 @@
 package com.alibaba.nacossync.extension.impl;
 
 import com.alibaba.nacos.api.naming.NamingService;
-import com.alibaba.nacos.api.naming.listener.EventListener;
-import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
-import com.alibaba.nacossync.constant.SkyWalkerConstants;
-import com.alibaba.nacossync.extension.SyncService;
+import com.alibaba.nacossync.extension.ReconcilableSyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.holder.ConsulServerHolder;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.alibaba.nacossync.util.ConsulUtils;
+import com.alibaba.nacossync.util.InstanceDiff;
+import com.alibaba.nacossync.util.InstanceFingerprint;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
 import com.alibaba.nacossync.util.NacosUtils;
 import com.ecwid.consul.v1.ConsulClient;
 import com.ecwid.consul.v1.QueryParams;
@@ -36,10 +38,9 @@ import com.ecwid.consul.v1.health.model.HealthService;
 import com.google.common.collect.Lists;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
@@ -49,9 +50,12 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @NacosSyncService(sourceCluster = ClusterTypeEnum.NACOS, destinationCluster = ClusterTypeEnum.CONSUL)
-public class NacosSyncToConsulServiceImpl implements SyncService {
+public class NacosSyncToConsulServiceImpl implements ReconcilableSyncService<Instance, HealthService> {
 
-    private Map<String, EventListener> nacosListenerMap = new ConcurrentHashMap<>();
+    /**
+     * fingerprints of the instances written to the destination, taskId -> instance snapshot
+     */
+    private final Map<String, InstanceSnapshot> instanceFingerprintMap = new ConcurrentHashMap<>();
 
     private final MetricsManager metricsManager;
 
@@ -59,25 +63,26 @@ public class NacosSyncToConsulServiceImpl implements SyncService {
 
     private final NacosServerHolder nacosServerHolder;
     private final ConsulServerHolder consulServerHolder;
+    private final NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
 
     public NacosSyncToConsulServiceImpl(MetricsManager metricsManager, SkyWalkerCacheServices skyWalkerCacheServices,
-        NacosServerHolder nacosServerHolder, ConsulServerHolder consulServerHolder) {
+        NacosServerHolder nacosServerHolder, ConsulServerHolder consulServerHolder,
+        NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer) {
         this.metricsManager = metricsManager;
         this.skyWalkerCacheServices = skyWalkerCacheServices;
         this.nacosServerHolder = nacosServerHolder;
         this.consulServerHolder = consulServerHolder;
+        this.nacosSubscriptionMultiplexer = nacosSubscriptionMultiplexer;
     }
 
     @Override
     public boolean delete(TaskDO taskDO) {
         try {
 
-            NamingService sourceNamingService =
-                nacosServerHolder.get(taskDO.getSourceClusterId());
             ConsulClient consulClient = consulServerHolder.get(taskDO.getDestClusterId());
 
-            sourceNamingService.unsubscribe(taskDO.getServiceName(),
-                NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), nacosListenerMap.get(taskDO.getTaskId()));
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
 
             // 删除目标集群中同步的实例列表
             Response<List<HealthService>> serviceResponse =
@@ -101,47 +106,47 @@ public class NacosSyncToConsulServiceImpl implements SyncService {
     @Override
     public boolean sync(TaskDO taskDO) {
         try {
-            NamingService sourceNamingService =
-                nacosServerHolder.get(taskDO.getSourceClusterId());
             ConsulClient consulClient = consulServerHolder.get(taskDO.getDestClusterId());
 
-            nacosListenerMap.putIfAbsent(taskDO.getTaskId(), event -> {
-                if (event instanceof NamingEvent) {
-                    try {
-                        Set<String> instanceKeySet = new HashSet<>();
-                        List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
-                            NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()));
-                        // 先将新的注册一遍
-                        for (Instance instance : sourceInstances) {
-                            if (needSync(instance.getMetadata())) {
-                                consulClient.agentServiceRegister(buildSyncInstance(instance, taskDO));
-                                instance.getInstanceId();
-                                instanceKeySet.add(composeInstanceKey(instance.getIp(), instance.getPort()));
-                            }
+            nacosSubscriptionMultiplexer.subscribe(taskDO, sourceInstances -> {
+                try {
+                    InstanceSnapshot.Builder snapshotBuilder = InstanceSnapshot.builder(sourceInstances.size());
+                    Map<InstanceKey, Instance> latestInstances = new HashMap<>(sourceInstances.size());
+                    for (Instance instance : sourceInstances) {
+                        if (needSync(instance.getMetadata())) {
+                            InstanceKey instanceKey = InstanceKey.of(instance);
+                            snapshotBuilder.add(instance.getIp(), instance.getPort(), InstanceFingerprint.of(instance));
+                            latestInstances.put(instanceKey, instance);
                         }
-
-                        // 再将不存在的删掉
-                        Response<List<HealthService>> serviceResponse =
-                            consulClient.getHealthServices(taskDO.getServiceName(), true, QueryParams.DEFAULT);
-                        List<HealthService> healthServices = serviceResponse.getValue();
-                        for (HealthService healthService : healthServices) {
-
-                            if (needDelete(ConsulUtils.transferMetadata(healthService.getService().getTags()), taskDO)
-                                && !instanceKeySet.contains(composeInstanceKey(healthService.getService().getAddress(),
-                                healthService.getService().getPort()))) {
-                                consulClient.agentServiceDeregister(URLEncoder
-                                    .encode(healthService.getService().getId(), StandardCharsets.UTF_8.toString()));
-                            }
+                    }
+                    // 先将新增或者发生变化的实例注册一遍
+                    InstanceSnapshot latestSnapshot = snapshotBuilder.build();
+                    InstanceDiff<InstanceKey> instanceDiff = InstanceSnapshot.diff(
+                        instanceFingerprintMap.getOrDefault(taskDO.getTaskId(), InstanceSnapshot.EMPTY),
+                        latestSnapshot);
+                    for (InstanceKey instanceKey : instanceDiff.getUpserted()) {
+                        consulClient.agentServiceRegister(buildSyncInstance(latestInstances.get(instanceKey), taskDO));
+                    }
+                    instanceFingerprintMap.put(taskDO.getTaskId(), latestSnapshot);
+
+                    // 再将不存在的删掉
+                    Response<List<HealthService>> serviceResponse =
+                        consulClient.getHealthServices(taskDO.getServiceName(), true, QueryParams.DEFAULT);
+                    List<HealthService> healthServices = serviceResponse.getValue();
+                    for (HealthService healthService : healthServices) {
+
+                        if (needDelete(ConsulUtils.transferMetadata(healthService.getService().getTags()), taskDO)
+                            && !latestSnapshot.contains(healthService.getService().getAddress(),
+                            healthService.getService().getPort())) {
+                            consulClient.agentServiceDeregister(URLEncoder
+                                .encode(healthService.getService().getId(), StandardCharsets.UTF_8.toString()));
                         }
-                    } catch (Exception e) {
-                        log.error("event process fail, taskId:{}", taskDO.getTaskId(), e);
-                        metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
                     }
+                } catch (Exception e) {
+                    log.error("event process fail, taskId:{}", taskDO.getTaskId(), e);
+                    metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
                 }
             });
-
-            sourceNamingService.subscribe(taskDO.getServiceName(),
-                NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), nacosListenerMap.get(taskDO.getTaskId()));
         } catch (Exception e) {
             log.error("sync task from nacos to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
             metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
@@ -150,6 +155,62 @@ public class NacosSyncToConsulServiceImpl implements SyncService {
         return true;
     }
 
+    @Override
+    public boolean release(TaskDO taskDO) {
+        try {
+            // 实例注册在Consul agent上，无需续约，保留即可
+            instanceFingerprintMap.remove(taskDO.getTaskId());
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+        } catch (Exception e) {
+            log.error("release task from nacos to consul was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Instance> readSource(TaskDO taskDO) throws Exception {
+        NamingService sourceNamingService =
+            nacosServerHolder.get(taskDO.getSourceClusterId());
+        List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
+            NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()));
+        Map<String, Instance> instanceMap = new HashMap<>(sourceInstances.size());
+        for (Instance instance : sourceInstances) {
+            if (needSync(instance.getMetadata())) {
+                instanceMap.put(composeInstanceKey(instance.getIp(), instance.getPort()), instance);
+            }
+        }
+        return instanceMap;
+    }
+
+    @Override
+    public Map<String, HealthService> readDestination(TaskDO taskDO) throws Exception {
+        ConsulClient consulClient = consulServerHolder.get(taskDO.getDestClusterId());
+        Response<List<HealthService>> serviceResponse =
+            consulClient.getHealthServices(taskDO.getServiceName(), true, QueryParams.DEFAULT);
+        Map<String, HealthService> instanceMap = new HashMap<>();
+        for (HealthService healthService : serviceResponse.getValue()) {
+            if (needDelete(ConsulUtils.transferMetadata(healthService.getService().getTags()), taskDO)) {
+                instanceMap.put(composeInstanceKey(healthService.getService().getAddress(),
+                    healthService.getService().getPort()), healthService);
+            }
+        }
+        return instanceMap;
+    }
+
+    @Override
+    public void repairAdd(TaskDO taskDO, Instance sourceInstance) {
+        consulServerHolder.get(taskDO.getDestClusterId())
+            .agentServiceRegister(buildSyncInstance(sourceInstance, taskDO));
+    }
+
+    @Override
+    public void repairRemove(TaskDO taskDO, HealthService destInstance) throws Exception {
+        consulServerHolder.get(taskDO.getDestClusterId()).agentServiceDeregister(URLEncoder
+            .encode(destInstance.getService().getId(), StandardCharsets.UTF_8.name()));
+    }
+
     private String composeInstanceKey(String ip, int port) {
         return ip + ":" + port;
     }
@@ -163,10 +224,8 @@ public class NacosSyncToConsulServiceImpl implements SyncService {
         List<String> tags = Lists.newArrayList();
         tags.addAll(instance.getMetadata().entrySet().stream()
             .map(entry -> String.join("=", entry.getKey(), entry.getValue())).collect(Collectors.toList()));
-        tags.add(String.join("=", SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId()));
-        tags.add(String.join("=", SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode()));
-        tags.add(String.join("=", SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId()));
+        skyWalkerCacheServices.getTaskDecoration(taskDO).getOverlay()
+            .forEach((key, value) -> tags.add(String.join("=", key, value)));
         newService.setTags(tags);
         return newService;
     }
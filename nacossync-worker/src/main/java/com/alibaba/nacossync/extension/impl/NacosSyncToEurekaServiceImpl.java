@@ -13,31 +13,31 @@
 package com.alibaba.nacossync.extension.impl;
 
 import com.alibaba.nacos.api.naming.NamingService;
-import com.alibaba.nacos.api.naming.listener.Event;
-import com.alibaba.nacos.api.naming.listener.EventListener;
-import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
 import com.alibaba.nacossync.constant.SkyWalkerConstants;
-import com.alibaba.nacossync.extension.SyncService;
+import com.alibaba.nacossync.extension.ReconcilableSyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.eureka.EurekaNamingService;
 import com.alibaba.nacossync.extension.holder.EurekaServerHolder;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.InstanceDiff;
+import com.alibaba.nacossync.util.InstanceFingerprint;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
 import com.alibaba.nacossync.util.NacosUtils;
 import com.netflix.appinfo.DataCenterInfo;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.appinfo.LeaseInfo;
 import com.netflix.appinfo.MyDataCenterInfo;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
@@ -46,33 +46,37 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @NacosSyncService(sourceCluster = ClusterTypeEnum.NACOS, destinationCluster = ClusterTypeEnum.EUREKA)
-public class NacosSyncToEurekaServiceImpl implements SyncService {
+public class NacosSyncToEurekaServiceImpl implements ReconcilableSyncService<Instance, InstanceInfo> {
 
-    private final Map<String, EventListener> nacosListenerMap = new ConcurrentHashMap<>();
+    /**
+     * fingerprints of the instances written to the destination, taskId -> instance snapshot
+     */
+    private final Map<String, InstanceSnapshot> instanceFingerprintMap = new ConcurrentHashMap<>();
 
     private final MetricsManager metricsManager;
     private final SkyWalkerCacheServices skyWalkerCacheServices;
     private final NacosServerHolder nacosServerHolder;
     private final EurekaServerHolder eurekaServerHolder;
+    private final NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
 
     public NacosSyncToEurekaServiceImpl(MetricsManager metricsManager, SkyWalkerCacheServices skyWalkerCacheServices,
-        NacosServerHolder nacosServerHolder, EurekaServerHolder eurekaServerHolder) {
+        NacosServerHolder nacosServerHolder, EurekaServerHolder eurekaServerHolder,
+        NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer) {
         this.metricsManager = metricsManager;
         this.skyWalkerCacheServices = skyWalkerCacheServices;
         this.nacosServerHolder = nacosServerHolder;
         this.eurekaServerHolder = eurekaServerHolder;
+        this.nacosSubscriptionMultiplexer = nacosSubscriptionMultiplexer;
     }
 
     @Override
     public boolean delete(TaskDO taskDO) {
         try {
-            NamingService sourceNamingService =
-                nacosServerHolder.get(taskDO.getSourceClusterId());
             EurekaNamingService destNamingService =
                 eurekaServerHolder.get(taskDO.getDestClusterId());
 
-            sourceNamingService.unsubscribe(taskDO.getServiceName(),
-                NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), nacosListenerMap.get(taskDO.getTaskId()));
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
             // 删除目标集群中同步的实例列表
             List<InstanceInfo> allInstances = destNamingService.getApplications(taskDO.getServiceName());
             if (allInstances != null) {
@@ -93,15 +97,11 @@ public class NacosSyncToEurekaServiceImpl implements SyncService {
     @Override
     public boolean sync(TaskDO taskDO) {
         try {
-            NamingService sourceNamingService =
-                nacosServerHolder.get(taskDO.getSourceClusterId());
             EurekaNamingService destNamingService =
                 eurekaServerHolder.get(taskDO.getDestClusterId());
 
-            nacosListenerMap.putIfAbsent(taskDO.getTaskId(), event -> processNamingEvent(taskDO, sourceNamingService, destNamingService, event));
-
-            sourceNamingService.subscribe(taskDO.getServiceName(),
-                NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), nacosListenerMap.get(taskDO.getTaskId()));
+            nacosSubscriptionMultiplexer.subscribe(taskDO,
+                sourceInstances -> processInstances(taskDO, destNamingService, sourceInstances));
         } catch (Exception e) {
             log.error("sync task from eureka to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
             metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
@@ -110,31 +110,92 @@ public class NacosSyncToEurekaServiceImpl implements SyncService {
         return true;
     }
 
-    private void processNamingEvent(TaskDO taskDO, NamingService sourceNamingService,
-        EurekaNamingService destNamingService, Event event) {
-        if (event instanceof NamingEvent) {
-            try {
-                Set<String> instanceKeySet = new HashSet<>();
-                List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
-                    NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()));
-                // 先将新的注册一遍
-                addAllNewInstance(taskDO, destNamingService, instanceKeySet, sourceInstances);
-                // 再将不存在的删掉
-                ifNecessaryDelete(taskDO, destNamingService, instanceKeySet);
-            } catch (Exception e) {
-                log.error("event process fail, taskId:{}", taskDO.getTaskId(), e);
-                metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+    @Override
+    public boolean release(TaskDO taskDO) {
+        try {
+            EurekaNamingService destNamingService =
+                eurekaServerHolder.get(taskDO.getDestClusterId());
+
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+            instanceFingerprintMap.remove(taskDO.getTaskId());
+            // 实例保留在目标集群中，由新的节点负责续约
+            List<InstanceInfo> allInstances = destNamingService.getApplications(taskDO.getServiceName());
+            if (allInstances != null) {
+                for (InstanceInfo instance : allInstances) {
+                    if (needDelete(instance.getMetadata(), taskDO)) {
+                        destNamingService.stopHeartbeat(instance);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("release task from nacos to eureka was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Instance> readSource(TaskDO taskDO) throws Exception {
+        NamingService sourceNamingService =
+            nacosServerHolder.get(taskDO.getSourceClusterId());
+        List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
+            NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()));
+        Map<String, Instance> instanceMap = new HashMap<>(sourceInstances.size());
+        for (Instance instance : sourceInstances) {
+            if (needSync(instance.getMetadata())) {
+                instanceMap.put(composeInstanceKey(instance.getIp(), instance.getPort()), instance);
+            }
+        }
+        return instanceMap;
+    }
+
+    @Override
+    public Map<String, InstanceInfo> readDestination(TaskDO taskDO) throws Exception {
+        EurekaNamingService destNamingService =
+            eurekaServerHolder.get(taskDO.getDestClusterId());
+        Map<String, InstanceInfo> instanceMap = new HashMap<>();
+        List<InstanceInfo> allInstances = destNamingService.getApplications(taskDO.getServiceName());
+        if (allInstances != null) {
+            for (InstanceInfo instance : allInstances) {
+                if (needDelete(instance.getMetadata(), taskDO)) {
+                    instanceMap.put(composeInstanceKey(instance.getIPAddr(), instance.getPort()), instance);
+                }
             }
         }
+        return instanceMap;
+    }
+
+    @Override
+    public void repairAdd(TaskDO taskDO, Instance sourceInstance) {
+        eurekaServerHolder.get(taskDO.getDestClusterId()).registerInstance(buildSyncInstance(sourceInstance, taskDO));
     }
 
-    private void ifNecessaryDelete(TaskDO taskDO, EurekaNamingService destNamingService, Set<String> instanceKeySet) {
+    @Override
+    public void repairRemove(TaskDO taskDO, InstanceInfo destInstance) {
+        eurekaServerHolder.get(taskDO.getDestClusterId()).deregisterInstance(destInstance);
+    }
+
+    private void processInstances(TaskDO taskDO, EurekaNamingService destNamingService,
+        List<Instance> sourceInstances) {
+        try {
+            // 先将新的注册一遍
+            InstanceSnapshot latestSnapshot = addAllNewInstance(taskDO, destNamingService, sourceInstances);
+            // 再将不存在的删掉
+            ifNecessaryDelete(taskDO, destNamingService, latestSnapshot);
+        } catch (Exception e) {
+            log.error("event process fail, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+        }
+    }
+
+    private void ifNecessaryDelete(TaskDO taskDO, EurekaNamingService destNamingService,
+        InstanceSnapshot latestSnapshot) {
         List<InstanceInfo> allInstances = destNamingService.getApplications(taskDO.getServiceName());
         if (allInstances != null) {
             for (InstanceInfo instance : allInstances) {
-                if (needDelete(instance.getMetadata(), taskDO) && !instanceKeySet.contains(
-                    composeInstanceKey(instance.getIPAddr(),
-                        instance.getPort()))) {
+                if (needDelete(instance.getMetadata(), taskDO) && !latestSnapshot.contains(
+                    instance.getIPAddr(), instance.getPort())) {
                     destNamingService.deregisterInstance(instance);
                 }
 
@@ -142,14 +203,26 @@ public class NacosSyncToEurekaServiceImpl implements SyncService {
         }
     }
 
-    private void addAllNewInstance(TaskDO taskDO, EurekaNamingService destNamingService, Set<String> instanceKeySet,
+    private InstanceSnapshot addAllNewInstance(TaskDO taskDO, EurekaNamingService destNamingService,
         List<Instance> sourceInstances) {
+        InstanceSnapshot.Builder snapshotBuilder = InstanceSnapshot.builder(sourceInstances.size());
+        Map<InstanceKey, Instance> latestInstances = new HashMap<>(sourceInstances.size());
         for (Instance instance : sourceInstances) {
             if (needSync(instance.getMetadata())) {
-                destNamingService.registerInstance(buildSyncInstance(instance, taskDO));
-                instanceKeySet.add(composeInstanceKey(instance.getIp(), instance.getPort()));
+                InstanceKey instanceKey = InstanceKey.of(instance);
+                snapshotBuilder.add(instance.getIp(), instance.getPort(), InstanceFingerprint.of(instance));
+                latestInstances.put(instanceKey, instance);
             }
         }
+        // 只注册新增或者发生变化的实例
+        InstanceSnapshot latestSnapshot = snapshotBuilder.build();
+        InstanceDiff<InstanceKey> instanceDiff = InstanceSnapshot.diff(
+            instanceFingerprintMap.getOrDefault(taskDO.getTaskId(), InstanceSnapshot.EMPTY), latestSnapshot);
+        for (InstanceKey instanceKey : instanceDiff.getUpserted()) {
+            destNamingService.registerInstance(buildSyncInstance(latestInstances.get(instanceKey), taskDO));
+        }
+        instanceFingerprintMap.put(taskDO.getTaskId(), latestSnapshot);
+        return latestSnapshot;
     }
 
     private String composeInstanceKey(String ip, int port) {
@@ -159,11 +232,8 @@ public class NacosSyncToEurekaServiceImpl implements SyncService {
     private InstanceInfo buildSyncInstance(Instance instance, TaskDO taskDO) {
         DataCenterInfo dataCenterInfo = new MyDataCenterInfo(DataCenterInfo.Name.MyOwn);
         final Map<String, String> instanceMetadata = instance.getMetadata();
-        HashMap<String, String> metadata = new HashMap<>(16);
-        metadata.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId());
-        metadata.put(SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode());
-        metadata.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId());
+        // InstanceInfo keeps a HashMap, so the overlay is copied here instead of decorated
+        HashMap<String, String> metadata = new HashMap<>(skyWalkerCacheServices.getTaskDecoration(taskDO).getOverlay());
         metadata.putAll(instanceMetadata);
         String homePageUrl = obtainHomePageUrl(instance, instanceMetadata);
         String serviceName = taskDO.getServiceName();
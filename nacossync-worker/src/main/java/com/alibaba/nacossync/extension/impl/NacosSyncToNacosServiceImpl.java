@@ -13,36 +13,33 @@
 package com.alibaba.nacossync.extension.impl;
 
 import static com.alibaba.nacossync.util.NacosUtils.getGroupNameOrDefault;
+import static com.alibaba.nacossync.util.NacosUtils.stopHeartbeats;
 
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
-import com.alibaba.nacos.api.naming.listener.EventListener;
-import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
-import com.alibaba.nacos.common.utils.CollectionUtils;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
-import com.alibaba.nacossync.constant.SkyWalkerConstants;
-import com.alibaba.nacossync.extension.SyncService;
+import com.alibaba.nacossync.extension.ReconcilableSyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
-import com.alibaba.nacossync.util.Collections;
+import com.alibaba.nacossync.util.Coalescer;
+import com.alibaba.nacossync.util.InstanceDiff;
+import com.alibaba.nacossync.util.InstanceFingerprint;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
-import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -53,13 +50,22 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 @Slf4j
 @NacosSyncService(sourceCluster = ClusterTypeEnum.NACOS, destinationCluster = ClusterTypeEnum.NACOS)
-public class NacosSyncToNacosServiceImpl implements SyncService {
+public class NacosSyncToNacosServiceImpl implements ReconcilableSyncService<Instance, Instance> {
 
-    private Map<String, EventListener> listenerMap = new ConcurrentHashMap<>();
+    /**
+     * 已同步实例的快照，taskId -> 实例地址及指纹的紧凑快照
+     */
+    private final Map<String, InstanceSnapshot> sourceInstanceSnapshot = new ConcurrentHashMap<>();
 
-    private final Map<String, Set<String>> sourceInstanceSnapshot = new ConcurrentHashMap<>();
+    /**
+     * 同步进行中再收到的事件不会被丢弃，当前同步结束后再补一次同步
+     */
+    private final Coalescer syncCoalescer = new Coalescer();
 
-    private final Map<String, Integer> syncTaskTap = new ConcurrentHashMap<>();
+    /**
+     * 订阅推送的最新实例列表，taskId -> 实例列表，由下一次同步取走，合并执行时只保留最新的一份
+     */
+    private final Map<String, List<Instance>> pendingEventInstances = new ConcurrentHashMap<>();
 
     @Autowired
     private MetricsManager metricsManager;
@@ -70,44 +76,11 @@ public class NacosSyncToNacosServiceImpl implements SyncService {
     @Autowired
     private NacosServerHolder nacosServerHolder;
 
-    private ConcurrentHashMap<String, TaskDO> allSyncTaskMap = new ConcurrentHashMap<String, TaskDO>();
-
-    /**
-     * 因为网络故障等原因，nacos sync的同步任务会失败，导致目标集群注册中心缺少同步实例， 为避免目标集群注册中心长时间缺少同步实例，每隔5分钟启动一个兜底工作线程执行一遍全部的同步任务。
-     */
-    @PostConstruct
-    public void startBasicSyncTaskThread() {
-        ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r);
-            t.setDaemon(true);
-            t.setName("com.alibaba.nacossync.basic.synctask");
-            return t;
-        });
-
-        executorService.scheduleWithFixedDelay(() -> {
-            if (allSyncTaskMap.size() == 0) {
-                return;
-            }
+    @Autowired
+    private NacosBatchWriter nacosBatchWriter;
 
-            try {
-                for (TaskDO taskDO : allSyncTaskMap.values()) {
-                    String taskId = taskDO.getTaskId();
-                    NamingService sourceNamingService =
-                        nacosServerHolder.get(taskDO.getSourceClusterId());
-                    NamingService destNamingService =
-                        nacosServerHolder.get(taskDO.getDestClusterId());
-                    try {
-                        doSync(taskId, taskDO, sourceNamingService, destNamingService);
-                    } catch (Exception e) {
-                        log.error("basic synctask process fail, taskId:{}", taskId, e);
-                        metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
-                    }
-                }
-            } catch (Throwable e) {
-                log.warn("basic synctask thread error", e);
-            }
-        }, 0, 300, TimeUnit.SECONDS);
-    }
+    @Autowired
+    private NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
 
     @Override
     public boolean delete(TaskDO taskDO) {
@@ -116,11 +89,10 @@ public class NacosSyncToNacosServiceImpl implements SyncService {
                 nacosServerHolder.get(taskDO.getSourceClusterId());
             NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
             //移除订阅
-            sourceNamingService
-                .unsubscribe(taskDO.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()),
-                    listenerMap.remove(taskDO.getTaskId()));
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
             sourceInstanceSnapshot.remove(taskDO.getTaskId());
-            allSyncTaskMap.remove(taskDO.getTaskId());
+            syncCoalescer.remove(taskDO.getTaskId());
+            pendingEventInstances.remove(taskDO.getTaskId());
 
             // 删除目标集群中同步的实例列表
             List<Instance> sourceInstances = sourceNamingService
@@ -149,21 +121,17 @@ public class NacosSyncToNacosServiceImpl implements SyncService {
             NamingService sourceNamingService =
                 nacosServerHolder.get(taskDO.getSourceClusterId());
             NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
-            allSyncTaskMap.put(taskId, taskDO);
             //防止暂停同步任务后,重新同步/或删除任务以后新建任务不会再接收到新的事件导致不能同步,所以每次订阅事件之前,先全量同步一次任务
             doSync(taskId, taskDO, sourceNamingService, destNamingService);
-            this.listenerMap.putIfAbsent(taskId, event -> {
-                if (event instanceof NamingEvent) {
-                    try {
-                        doSync(taskId, taskDO, sourceNamingService, destNamingService);
-                    } catch (Exception e) {
-                        log.error("event process fail, taskId:{}", taskId, e);
-                        metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
-                    }
+            nacosSubscriptionMultiplexer.subscribe(taskDO, instances -> {
+                try {
+                    pendingEventInstances.put(taskId, instances);
+                    doSync(taskId, taskDO, sourceNamingService, destNamingService);
+                } catch (Exception e) {
+                    log.error("event process fail, taskId:{}", taskId, e);
+                    metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
                 }
             });
-            sourceNamingService.subscribe(taskDO.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()),
-                listenerMap.get(taskId));
         } catch (Exception e) {
             log.error("sync task from nacos to nacos was failed, taskId:{}", taskId, e);
             metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
@@ -172,82 +140,155 @@ public class NacosSyncToNacosServiceImpl implements SyncService {
         return true;
     }
 
-    private void doSync(String taskId, TaskDO taskDO, NamingService sourceNamingService,
-        NamingService destNamingService) throws NacosException {
-        if (syncTaskTap.putIfAbsent(taskId, 1) != null) {
-            log.info("任务Id:{}上一个同步任务尚未结束", taskId);
-            return;
-        }
+    /**
+     * Only the local state is dropped, the synced instances stay in the destination and the new owner takes them
+     * over with its own heartbeats
+     */
+    @Override
+    public boolean release(TaskDO taskDO) {
         try {
-            // 直接从本地保存的serviceInfoMap中取订阅的服务实例
-            List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
-                getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), true);
-            // 先删除不存在的
-            this.removeInvalidInstance(taskDO, destNamingService, sourceInstances);
-            // 如果同步实例已经为空代表该服务所有实例已经下线,清除本地持有快照
-            if (sourceInstances.isEmpty()) {
-                sourceInstanceSnapshot.remove(taskId);
-                return;
-            }
-            // 同步实例
-            this.syncNewInstance(taskDO, destNamingService, sourceInstances);
-        } finally {
-            syncTaskTap.remove(taskId);
+            NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+            sourceInstanceSnapshot.remove(taskDO.getTaskId());
+            syncCoalescer.remove(taskDO.getTaskId());
+            pendingEventInstances.remove(taskDO.getTaskId());
+            stopHeartbeats(destNamingService, taskDO.getServiceName(), taskDO.getGroupName(),
+                taskDO.getSourceClusterId());
+        } catch (Exception e) {
+            log.error("release task from nacos to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
         }
+        return true;
     }
 
-    private void syncNewInstance(TaskDO taskDO, NamingService destNamingService,
-        List<Instance> sourceInstances) throws NacosException {
-        Set<String> latestSyncInstance = new TreeSet<>();
-        //再次添加新实例
-        String taskId = taskDO.getTaskId();
-        Set<String> instanceKeys = sourceInstanceSnapshot.get(taskId);
+    /**
+     * 因为网络故障等原因，nacos sync的同步任务会失败，导致目标集群注册中心缺少同步实例，由ReconcileEngine周期性地对比源集群与目标集群并修复差异。
+     */
+    @Override
+    public Map<String, Instance> readSource(TaskDO taskDO) throws Exception {
+        NamingService sourceNamingService = nacosServerHolder.get(taskDO.getSourceClusterId());
+        List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), true);
+        Map<String, Instance> instanceMap = new HashMap<>(sourceInstances.size());
         for (Instance instance : sourceInstances) {
             if (needSync(instance.getMetadata())) {
-                String instanceKey = composeInstanceKey(instance);
-                if (CollectionUtils.isEmpty(instanceKeys) || !instanceKeys.contains(instanceKey)) {
-                    destNamingService.registerInstance(taskDO.getServiceName(),
-                        getGroupNameOrDefault(taskDO.getGroupName()),
-                        buildSyncInstance(instance, taskDO));
-                }
-                latestSyncInstance.add(instanceKey);
-
+                instanceMap.put(composeInstanceKey(instance), instance);
             }
         }
-        if (CollectionUtils.isNotEmpty(latestSyncInstance)) {
+        return instanceMap;
+    }
 
-            log.info("任务Id:{},已同步实例个数:{}", taskId, latestSyncInstance.size());
-            sourceInstanceSnapshot.put(taskId, latestSyncInstance);
+    @Override
+    public Map<String, Instance> readDestination(TaskDO taskDO) throws Exception {
+        NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+        // 不走本地缓存，直接查询目标集群
+        List<Instance> destInstances = destNamingService.getAllInstances(taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), false);
+        Map<String, Instance> instanceMap = new HashMap<>(destInstances.size());
+        for (Instance instance : destInstances) {
+            if (needDelete(instance.getMetadata(), taskDO)) {
+                instanceMap.put(composeInstanceKey(instance), instance);
+            }
         }
+        return instanceMap;
     }
 
+    @Override
+    public void repairAdd(TaskDO taskDO, Instance sourceInstance) throws Exception {
+        nacosServerHolder.get(taskDO.getDestClusterId()).registerInstance(taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), buildSyncInstance(sourceInstance, taskDO));
+    }
 
-    private void removeInvalidInstance(TaskDO taskDO, NamingService destNamingService,
-        List<Instance> sourceInstances) throws NacosException {
-        String taskId = taskDO.getTaskId();
-        if (this.sourceInstanceSnapshot.containsKey(taskId)) {
-            Set<String> oldInstanceKeys = this.sourceInstanceSnapshot.get(taskId);
-            List<String> newInstanceKeys = sourceInstances.stream().map(this::composeInstanceKey)
-                .collect(Collectors.toList());
-            Collection<String> instanceKeys = Collections.subtract(oldInstanceKeys, newInstanceKeys);
-            for (String instanceKey : instanceKeys) {
-                log.info("任务Id:{},移除无效同步实例:{}", taskId, instanceKey);
-                String[] split = instanceKey.split(":", -1);
-                destNamingService
-                    .deregisterInstance(taskDO.getServiceName(),
-                        getGroupNameOrDefault(taskDO.getGroupName()), split[0],
-                        Integer.parseInt(split[1]));
+    @Override
+    public void repairRemove(TaskDO taskDO, Instance destInstance) throws Exception {
+        nacosServerHolder.get(taskDO.getDestClusterId()).deregisterInstance(taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), destInstance.getIp(), destInstance.getPort());
+    }
+
+    @Override
+    public void repairAddAll(TaskDO taskDO, Collection<Instance> sourceInstances) throws Exception {
+        List<Instance> syncInstances = sourceInstances.stream().map(instance -> buildSyncInstance(instance, taskDO))
+            .collect(Collectors.toList());
+        nacosBatchWriter.registerInstances(nacosServerHolder.get(taskDO.getDestClusterId()), taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), syncInstances);
+    }
 
+    @Override
+    public void repairRemoveAll(TaskDO taskDO, Collection<Instance> destInstances) throws Exception {
+        nacosBatchWriter.deregisterInstances(nacosServerHolder.get(taskDO.getDestClusterId()),
+            taskDO.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()), destInstances);
+    }
+
+    private void doSync(String taskId, TaskDO taskDO, NamingService sourceNamingService,
+        NamingService destNamingService) throws Exception {
+        if (!syncCoalescer.execute(taskId,
+            () -> doSync0(taskId, taskDO, sourceNamingService, destNamingService))) {
+            log.info("任务Id:{}上一个同步任务尚未结束,结束后将再同步一次", taskId);
+        }
+    }
+
+    private void doSync0(String taskId, TaskDO taskDO, NamingService sourceNamingService,
+        NamingService destNamingService) throws NacosException {
+        // 优先使用推送事件中的实例列表，没有时再从本地保存的serviceInfoMap中取订阅的服务实例
+        List<Instance> sourceInstances = pendingEventInstances.remove(taskId);
+        if (null == sourceInstances) {
+            sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
+                getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), true);
+        }
+        InstanceSnapshot.Builder snapshotBuilder = InstanceSnapshot.builder(sourceInstances.size());
+        Map<InstanceKey, Instance> latestInstances = new HashMap<>(sourceInstances.size());
+        for (Instance instance : sourceInstances) {
+            if (needSync(instance.getMetadata())) {
+                InstanceKey instanceKey = InstanceKey.of(instance);
+                snapshotBuilder.add(instance.getIp(), instance.getPort(), InstanceFingerprint.of(instance));
+                latestInstances.put(instanceKey, instance);
             }
+        }
+        InstanceSnapshot latestSnapshot = snapshotBuilder.build();
+        InstanceDiff<InstanceKey> instanceDiff = InstanceSnapshot.diff(
+            sourceInstanceSnapshot.getOrDefault(taskId, InstanceSnapshot.EMPTY), latestSnapshot);
+        // 先删除不存在的
+        this.removeInvalidInstance(taskDO, destNamingService, instanceDiff.getRemoved());
+        // 如果同步实例已经为空代表该服务所有实例已经下线,清除本地持有快照
+        if (latestSnapshot.isEmpty()) {
+            sourceInstanceSnapshot.remove(taskId);
+            return;
+        }
+        // 再添加新实例，或者权重、健康状态、元数据等发生变化的实例
+        this.syncNewInstance(taskDO, destNamingService, instanceDiff.getUpserted(), latestInstances);
+        log.info("任务Id:{},已同步实例个数:{}", taskId, latestSnapshot.size());
+        sourceInstanceSnapshot.put(taskId, latestSnapshot);
+    }
+
+    private void syncNewInstance(TaskDO taskDO, NamingService destNamingService, List<InstanceKey> instanceKeys,
+        Map<InstanceKey, Instance> latestInstances) throws NacosException {
+        List<Instance> waitingToRegister = new ArrayList<>(instanceKeys.size());
+        for (InstanceKey instanceKey : instanceKeys) {
+            waitingToRegister.add(buildSyncInstance(latestInstances.get(instanceKey), taskDO));
+        }
+        nacosBatchWriter.registerInstances(destNamingService, taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), waitingToRegister);
+    }
 
+    private void removeInvalidInstance(TaskDO taskDO, NamingService destNamingService,
+        List<InstanceKey> instanceKeys) throws NacosException {
+        List<Instance> waitingToDeregister = new ArrayList<>(instanceKeys.size());
+        for (InstanceKey instanceKey : instanceKeys) {
+            log.info("任务Id:{},移除无效同步实例:{}", taskDO.getTaskId(), instanceKey);
+            Instance instance = new Instance();
+            instance.setIp(instanceKey.getIp());
+            instance.setPort(instanceKey.getPort());
+            waitingToDeregister.add(instance);
         }
+        nacosBatchWriter.deregisterInstances(destNamingService, taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), waitingToDeregister);
     }
 
     private String composeInstanceKey(Instance instance) {
         return instance.getIp() + ":" + instance.getPort();
     }
 
-
     private Instance buildSyncInstance(Instance instance, TaskDO taskDO) {
         Instance temp = new Instance();
         temp.setIp(instance.getIp());
@@ -258,13 +299,7 @@ public class NacosSyncToNacosServiceImpl implements SyncService {
         temp.setHealthy(instance.isHealthy());
         temp.setWeight(instance.getWeight());
         temp.setEphemeral(instance.isEphemeral());
-        Map<String, String> metaData = new HashMap<>();
-        metaData.putAll(instance.getMetadata());
-        metaData.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId());
-        metaData.put(SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode());
-        metaData.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId());
-        temp.setMetadata(metaData);
+        temp.setMetadata(skyWalkerCacheServices.getTaskDecoration(taskDO).decorate(instance.getMetadata()));
         return temp;
     }
 
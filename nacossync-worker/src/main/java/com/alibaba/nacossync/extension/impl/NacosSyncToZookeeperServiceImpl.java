@@ -17,37 +17,43 @@ import static com.alibaba.nacossync.util.StringUtils.convertDubboFullPathForZk;
 import static com.alibaba.nacossync.util.StringUtils.convertDubboProvidersPath;
 
 import com.alibaba.nacos.api.naming.NamingService;
-import com.alibaba.nacos.api.naming.listener.EventListener;
-import com.alibaba.nacos.api.naming.listener.NamingEvent;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.client.naming.utils.CollectionUtils;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
-import com.alibaba.nacossync.constant.SkyWalkerConstants;
-import com.alibaba.nacossync.extension.SyncService;
+import com.alibaba.nacossync.extension.ReconcilableSyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
 import com.alibaba.nacossync.extension.holder.ZookeeperServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperBatchWriter;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.alibaba.nacossync.util.DubboConstants;
-import com.google.common.collect.Sets;
+import com.alibaba.nacossync.util.DubboUrlParser;
+import com.alibaba.nacossync.util.RenderedPathCache;
+import com.alibaba.nacossync.util.StringUtils;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.PathChildrenCache;
 import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
 import org.apache.curator.utils.CloseableUtils;
 import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 /**
  * Nacos 同步 Zk 数据
@@ -57,19 +63,32 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 @Slf4j
 @NacosSyncService(sourceCluster = ClusterTypeEnum.NACOS, destinationCluster = ClusterTypeEnum.ZK)
-public class NacosSyncToZookeeperServiceImpl implements SyncService {
+public class NacosSyncToZookeeperServiceImpl implements ReconcilableSyncService<Instance, String> {
 
     @Autowired
     private MetricsManager metricsManager;
 
     /**
-     * @description The Nacos listener map.
+     * instance backup, taskId -> sorted zk paths of the synced instances, kept as an array instead of a hash set. It
+     * is also the index the removed nodes are looked up in, with a binary search
      */
-    private final Map<String, EventListener> nacosListenerMap = new ConcurrentHashMap<>();
+    private final Map<String, String[]> instanceBackupMap = new ConcurrentHashMap<>();
+
+    /**
+     * removed nodes waiting to be recreated, taskId -> zk paths
+     */
+    private final Map<String, Set<String>> pendingRepairMap = new ConcurrentHashMap<>();
+
     /**
-     * instance backup
+     * rendered zk paths, taskId -> paths of the synced instances by content fingerprint
      */
-    private final Map<String, Set<String>> instanceBackupMap = new ConcurrentHashMap<>();
+    private final Map<String, RenderedPathCache> renderedPathCacheMap = new ConcurrentHashMap<>();
+
+    /**
+     * How long removed nodes are gathered before they are recreated, a session expiry removes all of them at once
+     */
+    @Value("${nacos.sync.zookeeper-repair.delay-ms:200}")
+    private long repairDelayMs;
 
     /**
      * listener cache of zookeeper format: taskId -> PathChildrenCache instance
@@ -92,30 +111,47 @@ public class NacosSyncToZookeeperServiceImpl implements SyncService {
 
     private final ZookeeperServerHolder zookeeperServerHolder;
 
+    /**
+     * @description The shared subscriptions of the Nacos services.
+     */
+    private final NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
+
+    /**
+     * @description The batched writes to the destination ZooKeeper.
+     */
+    private final ZookeeperBatchWriter zookeeperBatchWriter;
+
+    private final ScheduledExecutorService scheduledExecutorService;
+
     @Autowired
     public NacosSyncToZookeeperServiceImpl(SkyWalkerCacheServices skyWalkerCacheServices,
-        NacosServerHolder nacosServerHolder, ZookeeperServerHolder zookeeperServerHolder) {
+        NacosServerHolder nacosServerHolder, ZookeeperServerHolder zookeeperServerHolder,
+        NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer, ZookeeperBatchWriter zookeeperBatchWriter,
+        ScheduledExecutorService scheduledExecutorService) {
         this.skyWalkerCacheServices = skyWalkerCacheServices;
         this.nacosServerHolder = nacosServerHolder;
         this.zookeeperServerHolder = zookeeperServerHolder;
+        this.nacosSubscriptionMultiplexer = nacosSubscriptionMultiplexer;
+        this.zookeeperBatchWriter = zookeeperBatchWriter;
+        this.scheduledExecutorService = scheduledExecutorService;
     }
 
     @Override
     public boolean delete(TaskDO taskDO) {
         try {
-
-            NamingService sourceNamingService =
-                nacosServerHolder.get(taskDO.getSourceClusterId());
-            EventListener eventListener = nacosListenerMap.remove(taskDO.getTaskId());
-            PathChildrenCache pathChildrenCache = pathChildrenCacheMap.get(taskDO.getTaskId());
-            sourceNamingService.unsubscribe(taskDO.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()),
-                eventListener);
-            CloseableUtils.closeQuietly(pathChildrenCache);
-            Set<String> instanceUrlSet = instanceBackupMap.get(taskDO.getTaskId());
-            CuratorFramework client = zookeeperServerHolder.get(taskDO.getDestClusterId());
-            for (String instanceUrl : instanceUrlSet) {
-                client.delete().quietly().forPath(instanceUrl);
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+            // a closed cache keeps its last data, the task id is reused when the task is added again
+            CloseableUtils.closeQuietly(pathChildrenCacheMap.remove(taskDO.getTaskId()));
+            monitorPath.remove(taskDO.getTaskId());
+            // a pending repair must not bring the deleted nodes back
+            pendingRepairMap.remove(taskDO.getTaskId());
+            renderedPathCacheMap.remove(taskDO.getTaskId());
+            String[] instanceUrls = instanceBackupMap.remove(taskDO.getTaskId());
+            if (null == instanceUrls) {
+                return true;
             }
+            CuratorFramework client = zookeeperServerHolder.get(taskDO.getDestClusterId());
+            zookeeperBatchWriter.delete(client, Arrays.asList(instanceUrls));
         } catch (Exception e) {
             log.error("delete task from nacos to zk was failed, taskId:{}", taskDO.getTaskId(), e);
             metricsManager.recordError(MetricsStatisticsType.DELETE_ERROR);
@@ -127,33 +163,27 @@ public class NacosSyncToZookeeperServiceImpl implements SyncService {
     @Override
     public boolean sync(TaskDO taskDO) {
         try {
-            NamingService sourceNamingService =
-                nacosServerHolder.get(taskDO.getSourceClusterId());
             CuratorFramework client = zookeeperServerHolder.get(taskDO.getDestClusterId());
-            nacosListenerMap.putIfAbsent(taskDO.getTaskId(), event -> {
-                if (event instanceof NamingEvent) {
-                    try {
-
-                        List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
-                            getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), true);
-                        Set<String> newInstanceUrlSet = getWaitingToAddInstance(taskDO, client, sourceInstances);
-
-                        // 获取之前的备份 删除无效实例
-                        deleteInvalidInstances(taskDO, client, newInstanceUrlSet);
-                        // 替换当前备份为最新备份
-                        instanceBackupMap.put(taskDO.getTaskId(), newInstanceUrlSet);
-                        // 尝试恢复因为zk客户端意外断开导致的实例数据
-                        tryToCompensate(taskDO, sourceNamingService, sourceInstances);
-                    } catch (Exception e) {
-                        log.error("event process fail, taskId:{}", taskDO.getTaskId(), e);
-                        metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            nacosSubscriptionMultiplexer.subscribe(taskDO, sourceInstances -> {
+                try {
+                    String[] newInstanceUrls = buildInstanceUrls(taskDO, sourceInstances);
+                    // 目标zk中已有的节点由本地镜像判断, 无变化时不访问zk
+                    PathChildrenCache mirror = CollectionUtils.isEmpty(sourceInstances)
+                        ? pathChildrenCacheMap.get(taskDO.getTaskId()) : getPathCache(taskDO);
+                    addMissingInstances(taskDO, client, mirror, newInstanceUrls);
+
+                    // 获取之前的备份 删除无效实例
+                    deleteInvalidInstances(taskDO, client, newInstanceUrls);
+                    // 替换当前备份为最新备份
+                    instanceBackupMap.put(taskDO.getTaskId(), newInstanceUrls);
+                    // 尝试恢复因为zk客户端意外断开导致的实例数据
+                    tryToCompensate(taskDO, sourceInstances);
+                } catch (Exception e) {
+                    log.error("event process fail, taskId:{}", taskDO.getTaskId(), e);
+                    metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
 
-                    }
                 }
             });
-
-            sourceNamingService.subscribe(taskDO.getServiceName(),getGroupNameOrDefault(taskDO.getGroupName()),
-                nacosListenerMap.get(taskDO.getTaskId()));
         } catch (Exception e) {
             log.error("sync task from nacos to zk was failed, taskId:{}", taskDO.getTaskId(), e);
             metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
@@ -162,22 +192,82 @@ public class NacosSyncToZookeeperServiceImpl implements SyncService {
         return true;
     }
 
-    private void tryToCompensate(TaskDO taskDO, NamingService sourceNamingService, List<Instance> sourceInstances) {
+    /**
+     * The ephemeral nodes are left in place, the new owner takes them over, and recreates them if they disappear
+     * with the session of this worker
+     */
+    @Override
+    public boolean release(TaskDO taskDO) {
+        try {
+            nacosSubscriptionMultiplexer.unsubscribe(taskDO);
+            CloseableUtils.closeQuietly(pathChildrenCacheMap.remove(taskDO.getTaskId()));
+            instanceBackupMap.remove(taskDO.getTaskId());
+            pendingRepairMap.remove(taskDO.getTaskId());
+            renderedPathCacheMap.remove(taskDO.getTaskId());
+        } catch (Exception e) {
+            log.error("release task from nacos to zk was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Instance> readSource(TaskDO taskDO) throws Exception {
+        NamingService sourceNamingService = nacosServerHolder.get(taskDO.getSourceClusterId());
+        List<Instance> sourceInstances = sourceNamingService.getAllInstances(taskDO.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), true);
+        Map<String, Instance> instanceMap = new HashMap<>(sourceInstances.size());
+        for (Instance instance : sourceInstances) {
+            if (needSync(instance.getMetadata())) {
+                instanceMap.put(buildSyncInstance(instance, taskDO), instance);
+            }
+        }
+        return instanceMap;
+    }
+
+    @Override
+    public Map<String, String> readDestination(TaskDO taskDO) throws Exception {
+        Map<String, String> instanceUrlMap = new HashMap<>();
+        String servicePath = monitorPath.get(taskDO.getTaskId());
+        CuratorFramework client = zookeeperServerHolder.get(taskDO.getDestClusterId());
+        if (StringUtils.isEmpty(servicePath) || null == client.checkExists().forPath(servicePath)) {
+            return instanceUrlMap;
+        }
+        for (String child : client.getChildren().forPath(servicePath)) {
+            if (needDelete(DubboUrlParser.parse(child).getParameters(), taskDO)) {
+                String instanceUrl = servicePath + DubboConstants.ZOOKEEPER_SEPARATOR + child;
+                instanceUrlMap.put(instanceUrl, instanceUrl);
+            }
+        }
+        return instanceUrlMap;
+    }
+
+    @Override
+    public void repairAdd(TaskDO taskDO, Instance sourceInstance) throws Exception {
+        try {
+            zookeeperServerHolder.get(taskDO.getDestClusterId()).create().creatingParentsIfNeeded()
+                .withMode(CreateMode.EPHEMERAL).forPath(buildSyncInstance(sourceInstance, taskDO));
+        } catch (KeeperException.NodeExistsException e) {
+            log.debug("zk instance already exists, taskId:{}", taskDO.getTaskId());
+        }
+    }
+
+    @Override
+    public void repairRemove(TaskDO taskDO, String destInstance) throws Exception {
+        zookeeperServerHolder.get(taskDO.getDestClusterId()).delete().quietly().forPath(destInstance);
+    }
+
+    private void tryToCompensate(TaskDO taskDO, List<Instance> sourceInstances) {
         if (!CollectionUtils.isEmpty(sourceInstances)) {
             final PathChildrenCache pathCache = getPathCache(taskDO);
-            if (pathCache.getListenable().size() == 0) { // 防止重复注册
+            if (null != pathCache && pathCache.getListenable().size() == 0) { // 防止重复注册
                 pathCache.getListenable().addListener((zkClient, zkEvent) -> {
                     if (zkEvent.getType() == PathChildrenCacheEvent.Type.CHILD_REMOVED) {
-                        List<Instance> allInstances =
-                            sourceNamingService.getAllInstances(taskDO.getServiceName(),getGroupNameOrDefault(taskDO.getGroupName()));
-                        for (Instance instance : allInstances) {
-                            String instanceUrl = buildSyncInstance(instance, taskDO);
-                            String zkInstancePath = zkEvent.getData().getPath();
-                            if (zkInstancePath.equals(instanceUrl)) {
-                                zkClient.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL)
-                                    .forPath(zkInstancePath);
-                                break;
-                            }
+                        String[] instanceBackup = instanceBackupMap.get(taskDO.getTaskId());
+                        String zkInstancePath = zkEvent.getData().getPath();
+                        if (null != instanceBackup && Arrays.binarySearch(instanceBackup, zkInstancePath) >= 0) {
+                            scheduleRepair(taskDO, zkInstancePath);
                         }
                     }
                 });
@@ -186,41 +276,112 @@ public class NacosSyncToZookeeperServiceImpl implements SyncService {
         }
     }
 
-    private void deleteInvalidInstances(TaskDO taskDO, CuratorFramework client, Set<String> newInstanceUrlSet)
+    private void scheduleRepair(TaskDO taskDO, String zkInstancePath) {
+        pendingRepairMap.compute(taskDO.getTaskId(), (taskId, zkInstancePaths) -> {
+            if (null == zkInstancePaths) {
+                zkInstancePaths = new HashSet<>();
+                scheduledExecutorService.schedule(() -> repair(taskDO), repairDelayMs, TimeUnit.MILLISECONDS);
+            }
+            zkInstancePaths.add(zkInstancePath);
+            return zkInstancePaths;
+        });
+    }
+
+    /**
+     * Recreates the removed nodes gathered for the task in one batch, unless they left the backup or came back
+     */
+    private void repair(TaskDO taskDO) {
+        Set<String> zkInstancePaths = pendingRepairMap.remove(taskDO.getTaskId());
+        String[] instanceBackup = instanceBackupMap.get(taskDO.getTaskId());
+        if (null == zkInstancePaths || null == instanceBackup) {
+            return;
+        }
+        PathChildrenCache mirror = pathChildrenCacheMap.get(taskDO.getTaskId());
+        List<String> missingInstanceUrls = new ArrayList<>(zkInstancePaths.size());
+        for (String zkInstancePath : zkInstancePaths) {
+            if (Arrays.binarySearch(instanceBackup, zkInstancePath) >= 0
+                && (null == mirror || null == mirror.getCurrentData(zkInstancePath))) {
+                missingInstanceUrls.add(zkInstancePath);
+            }
+        }
+        try {
+            zookeeperBatchWriter.create(zookeeperServerHolder.get(taskDO.getDestClusterId()), missingInstanceUrls,
+                CreateMode.EPHEMERAL);
+            log.info("recreated {} removed zk instances, taskId:{}", missingInstanceUrls.size(), taskDO.getTaskId());
+        } catch (Exception e) {
+            log.error("recreate removed zk instances was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+        }
+    }
+
+    /**
+     * Deletes the instances of the backup that are not synced any more. The mirror is not consulted, it may not have
+     * seen a node created just before yet, a node that is already gone is ignored by the writer.
+     */
+    private void deleteInvalidInstances(TaskDO taskDO, CuratorFramework client, String[] newInstanceUrls)
         throws Exception {
-        Set<String> instanceBackup =
-            instanceBackupMap.getOrDefault(taskDO.getTaskId(), Sets.newHashSet());
-        for (String instanceUrl : instanceBackup) {
-            if (newInstanceUrlSet.contains(instanceUrl)) {
-                continue;
+        String[] instanceBackup = instanceBackupMap.getOrDefault(taskDO.getTaskId(), new String[0]);
+        // 两个备份都是有序的，一次归并即可找出失效的实例
+        zookeeperBatchWriter.delete(client, subtract(instanceBackup, newInstanceUrls));
+    }
+
+    /**
+     * Creates the instances missing from the mirror of the providers path. Without a mirror, the instances missing
+     * from the backup are created, the ones in it are recreated by the compensation listener and the reconciliation
+     * if they disappear. A node created just before may not be mirrored yet, creating it again is ignored.
+     */
+    private void addMissingInstances(TaskDO taskDO, CuratorFramework client, PathChildrenCache mirror,
+        String[] newInstanceUrls) throws Exception {
+        List<String> missingInstanceUrls;
+        if (null == mirror) {
+            String[] instanceBackup = instanceBackupMap.getOrDefault(taskDO.getTaskId(), new String[0]);
+            missingInstanceUrls = subtract(newInstanceUrls, instanceBackup);
+        } else {
+            missingInstanceUrls = new ArrayList<>();
+            for (String instanceUrl : newInstanceUrls) {
+                if (null == mirror.getCurrentData(instanceUrl)) {
+                    missingInstanceUrls.add(instanceUrl);
+                }
             }
-            client.delete().quietly().forPath(instanceUrl);
         }
+        zookeeperBatchWriter.create(client, missingInstanceUrls, CreateMode.EPHEMERAL);
     }
 
-    private HashSet<String> getWaitingToAddInstance(TaskDO taskDO, CuratorFramework client,
-        List<Instance> sourceInstances) throws Exception {
-        HashSet<String> waitingToAddInstance = new HashSet<>();
+    /**
+     * @return the sorted zk paths the source instances are synced to, only new or changed instances are rendered
+     */
+    private String[] buildInstanceUrls(TaskDO taskDO, List<Instance> sourceInstances) throws Exception {
+        List<Instance> syncInstances = new ArrayList<>(sourceInstances.size());
         for (Instance instance : sourceInstances) {
             if (needSync(instance.getMetadata())) {
-                String instanceUrl = buildSyncInstance(instance, taskDO);
-                if (null == client.checkExists().forPath(instanceUrl)) {
-                    client.create().creatingParentsIfNeeded().withMode(CreateMode.EPHEMERAL)
-                        .forPath(instanceUrl);
-                }
-                waitingToAddInstance.add(instanceUrl);
+                syncInstances.add(instance);
+            }
+        }
+        return renderedPathCacheMap.computeIfAbsent(taskDO.getTaskId(), key -> new RenderedPathCache())
+            .render(syncInstances, skyWalkerCacheServices.getTaskDecoration(taskDO),
+                instance -> buildSyncInstance(instance, taskDO));
+    }
+
+    /**
+     * @return the urls of a missing from b, both sorted, found with one merge
+     */
+    private static List<String> subtract(String[] a, String[] b) {
+        List<String> difference = new ArrayList<>();
+        int j = 0;
+        for (String instanceUrl : a) {
+            while (j < b.length && b[j].compareTo(instanceUrl) < 0) {
+                j++;
+            }
+            if (j == b.length || !b[j].equals(instanceUrl)) {
+                difference.add(instanceUrl);
             }
         }
-        return waitingToAddInstance;
+        return difference;
     }
 
     protected String buildSyncInstance(Instance instance, TaskDO taskDO) throws UnsupportedEncodingException {
-        Map<String, String> metaData = new HashMap<>();
-        metaData.putAll(instance.getMetadata());
-        metaData.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId());
-        metaData.put(SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode());
-        metaData.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId());
+        Map<String, String> metaData =
+            skyWalkerCacheServices.getTaskDecoration(taskDO).decorate(instance.getMetadata());
 
         String servicePath = monitorPath.computeIfAbsent(taskDO.getTaskId(),
             key -> convertDubboProvidersPath(metaData.get(DubboConstants.INTERFACE_KEY)));
@@ -230,7 +391,7 @@ public class NacosSyncToZookeeperServiceImpl implements SyncService {
 
 
     /**
-     * 获取zk path child 监听缓存类
+     * 获取zk path child 监听缓存类, 同时作为目标zk中providers节点的本地镜像
      *
      * @param taskDO 任务对象
      * @return zk节点操作缓存对象
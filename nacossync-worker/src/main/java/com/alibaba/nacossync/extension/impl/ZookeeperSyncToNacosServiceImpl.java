@@ -16,17 +16,12 @@ import static com.alibaba.nacossync.util.DubboConstants.ALL_SERVICE_NAME_PATTERN
 import static com.alibaba.nacossync.util.DubboConstants.DUBBO_PATH_FORMAT;
 import static com.alibaba.nacossync.util.DubboConstants.DUBBO_ROOT_PATH;
 import static com.alibaba.nacossync.util.DubboConstants.GROUP_KEY;
-import static com.alibaba.nacossync.util.DubboConstants.INSTANCE_IP_KEY;
-import static com.alibaba.nacossync.util.DubboConstants.INSTANCE_PORT_KEY;
 import static com.alibaba.nacossync.util.DubboConstants.INTERFACE_KEY;
-import static com.alibaba.nacossync.util.DubboConstants.PROTOCOL_KEY;
 import static com.alibaba.nacossync.util.DubboConstants.VERSION_KEY;
 import static com.alibaba.nacossync.util.DubboConstants.WEIGHT_KEY;
-import static com.alibaba.nacossync.util.DubboConstants.ZOOKEEPER_SEPARATOR;
 import static com.alibaba.nacossync.util.DubboConstants.createServiceName;
 import static com.alibaba.nacossync.util.NacosUtils.getGroupNameOrDefault;
-import static com.alibaba.nacossync.util.StringUtils.parseIpAndPortString;
-import static com.alibaba.nacossync.util.StringUtils.parseQueryString;
+import static com.alibaba.nacossync.util.NacosUtils.stopHeartbeats;
 
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.NamingService;
@@ -34,27 +29,32 @@ import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.MetricsStatisticsType;
-import com.alibaba.nacossync.constant.SkyWalkerConstants;
-import com.alibaba.nacossync.extension.SyncService;
+import com.alibaba.nacossync.extension.ReconcilableSyncService;
 import com.alibaba.nacossync.extension.annotation.NacosSyncService;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
 import com.alibaba.nacossync.extension.holder.ZookeeperServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperEventBatcher;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperEventBatcher.BatchApplier;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperProviderLoader;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperTreeCacheMultiplexer;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.DubboUrlParser;
+import com.alibaba.nacossync.util.DubboUrlParser.ProviderUrl;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.curator.framework.CuratorFramework;
-import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
-import org.apache.curator.utils.CloseableUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -64,59 +64,70 @@ import org.springframework.beans.factory.annotation.Autowired;
  */
 @Slf4j
 @NacosSyncService(sourceCluster = ClusterTypeEnum.ZK, destinationCluster = ClusterTypeEnum.NACOS)
-public class ZookeeperSyncToNacosServiceImpl implements SyncService {
+public class ZookeeperSyncToNacosServiceImpl implements ReconcilableSyncService<Instance, Instance> {
 
     @Autowired
     private MetricsManager metricsManager;
 
-    /**
-     * Listener cache of Zookeeper format taskId -> PathChildrenCache instance
-     */
-    private Map<String, TreeCache> treeCacheMap = new ConcurrentHashMap<>();
     /**
      * service name cache
      */
     private Map<String, String> nacosServiceNameMap = new ConcurrentHashMap<>();
 
+    /**
+     * taskId -> the Nacos service names the task registered instances under. Unlike the service name cache it is not
+     * cleared when a provider is removed, the reconciliation reads the destination through it
+     */
+    private final Map<String, Set<String>> destServiceNameMap = new ConcurrentHashMap<>();
+
     private final ZookeeperServerHolder zookeeperServerHolder;
 
     private final NacosServerHolder nacosServerHolder;
 
     private final SkyWalkerCacheServices skyWalkerCacheServices;
 
+    private final NacosBatchWriter nacosBatchWriter;
+
+    private final ZookeeperTreeCacheMultiplexer zookeeperTreeCacheMultiplexer;
+
+    private final ZookeeperProviderLoader zookeeperProviderLoader;
+
+    private final ZookeeperEventBatcher zookeeperEventBatcher;
+
     @Autowired
     public ZookeeperSyncToNacosServiceImpl(ZookeeperServerHolder zookeeperServerHolder,
-        NacosServerHolder nacosServerHolder, SkyWalkerCacheServices skyWalkerCacheServices) {
+        NacosServerHolder nacosServerHolder, SkyWalkerCacheServices skyWalkerCacheServices,
+        NacosBatchWriter nacosBatchWriter, ZookeeperTreeCacheMultiplexer zookeeperTreeCacheMultiplexer,
+        ZookeeperProviderLoader zookeeperProviderLoader, ZookeeperEventBatcher zookeeperEventBatcher) {
         this.zookeeperServerHolder = zookeeperServerHolder;
         this.nacosServerHolder = nacosServerHolder;
         this.skyWalkerCacheServices = skyWalkerCacheServices;
+        this.nacosBatchWriter = nacosBatchWriter;
+        this.zookeeperTreeCacheMultiplexer = zookeeperTreeCacheMultiplexer;
+        this.zookeeperProviderLoader = zookeeperProviderLoader;
+        this.zookeeperEventBatcher = zookeeperEventBatcher;
     }
 
     @Override
     public boolean sync(TaskDO taskDO) {
         try {
-            if (treeCacheMap.containsKey(taskDO.getTaskId())) {
+            if (zookeeperTreeCacheMultiplexer.isSubscribed(taskDO)) {
                 return true;
             }
 
-            TreeCache treeCache = getTreeCache(taskDO);
             NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
             // 初次执行任务统一注册所有实例
             registerAllInstances(taskDO, destNamingService);
-            //注册ZK监听
-            Objects.requireNonNull(treeCache).getListenable().addListener((client, event) -> {
+            //注册ZK监听, 事件已按服务名路由并只解析一次, 同一服务的变更合并后批量写入
+            zookeeperTreeCacheMultiplexer.subscribe(taskDO, (type, path, providerUrl) -> {
                 try {
-
-                    String path = event.getData().getPath();
-                    Map<String, String> queryParam = parseQueryString(path);
-                    if (isMatch(taskDO, queryParam) && needSync(queryParam)) {
-                        processEvent(taskDO, destNamingService, event, path, queryParam);
+                    if (isMatch(taskDO, providerUrl.getParameters()) && needSync(providerUrl.getParameters())) {
+                        processEvent(taskDO, destNamingService, type, providerUrl);
                     }
                 } catch (Exception e) {
                     log.error("event process from Zookeeper to Nacos was failed, taskId:{}", taskDO.getTaskId(), e);
                     metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
                 }
-
             });
         } catch (Exception e) {
             log.error("sync task from Zookeeper to Nacos was failed, taskId:{}", taskDO.getTaskId(), e);
@@ -126,29 +137,23 @@ public class ZookeeperSyncToNacosServiceImpl implements SyncService {
         return true;
     }
 
-    private void processEvent(TaskDO taskDO, NamingService destNamingService, TreeCacheEvent event, String path,
-        Map<String, String> queryParam) throws NacosException {
-        if (!com.alibaba.nacossync.util.StringUtils.isDubboProviderPath(path)) {
-            return;
-        }
-
-        Map<String, String> ipAndPortParam = parseIpAndPortString(path);
-        Instance instance = buildSyncInstance(queryParam, ipAndPortParam, taskDO);
+    private void processEvent(TaskDO taskDO, NamingService destNamingService, TreeCacheEvent.Type type,
+        ProviderUrl providerUrl) {
+        Map<String, String> queryParam = providerUrl.getParameters();
         String serviceName = queryParam.get(INTERFACE_KEY);
-        switch (event.getType()) {
+        Instance instance = buildSyncInstance(providerUrl, taskDO);
+        instance.setServiceName(getServiceNameFromCache(serviceName, queryParam));
+        BatchApplier applier =
+            (registers, deregisters) -> applyEvents(taskDO, destNamingService, registers, deregisters);
+        switch (type) {
             case NODE_ADDED:
             case NODE_UPDATED:
 
-                destNamingService.registerInstance(
-                    getServiceNameFromCache(serviceName, queryParam), getGroupNameOrDefault(taskDO.getGroupName()),
-                    instance);
+                zookeeperEventBatcher.register(taskDO.getTaskId(), serviceName, instance, applier);
                 break;
             case NODE_REMOVED:
 
-                destNamingService.deregisterInstance(
-                    getServiceNameFromCache(serviceName, queryParam), getGroupNameOrDefault(taskDO.getGroupName()),
-                    ipAndPortParam.get(INSTANCE_IP_KEY),
-                    Integer.parseInt(ipAndPortParam.get(INSTANCE_PORT_KEY)));
+                zookeeperEventBatcher.deregister(taskDO.getTaskId(), serviceName, instance, applier);
                 nacosServiceNameMap.remove(serviceName);
                 break;
             default:
@@ -156,16 +161,27 @@ public class ZookeeperSyncToNacosServiceImpl implements SyncService {
         }
     }
 
+    /**
+     * applies the net changes of the provider events gathered for one service
+     */
+    private void applyEvents(TaskDO taskDO, NamingService destNamingService, List<Instance> registers,
+        List<Instance> deregisters) throws NacosException {
+        nacosBatchWriter.execute(deregisters, instance -> destNamingService
+            .deregisterInstance(instance.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()),
+                instance.getIp(), instance.getPort()));
+        registerInstances(taskDO, destNamingService, registers);
+    }
+
     private void registerAllInstances(TaskDO taskDO, NamingService destNamingService) throws Exception {
         CuratorFramework zk = zookeeperServerHolder.get(taskDO.getSourceClusterId());
         if (!ALL_SERVICE_NAME_PATTERN.equals(taskDO.getServiceName())) {
             registerALLInstances0(taskDO, destNamingService, zk, taskDO.getServiceName());
         } else {
-            // 同步全部
+            // 同步全部, 各服务的providers并发读取, 解析后的实例批量写入
             List<String> serviceList = zk.getChildren().forPath(DUBBO_ROOT_PATH);
-            for (String serviceName : serviceList) {
-                registerALLInstances0(taskDO, destNamingService, zk, serviceName);
-            }
+            zookeeperProviderLoader.load(taskDO.getTaskId(), zk, serviceList,
+                (serviceName, providers) -> buildSyncInstances(taskDO, serviceName, providers),
+                batch -> registerInstances(taskDO, destNamingService, batch));
         }
     }
 
@@ -176,16 +192,44 @@ public class ZookeeperSyncToNacosServiceImpl implements SyncService {
             return;
         }
         List<String> providers = zk.getChildren().forPath(path);
+        registerInstances(taskDO, destNamingService, buildSyncInstances(taskDO, serviceName, providers));
+    }
+
+    private List<Instance> buildSyncInstances(TaskDO taskDO, String serviceName, List<String> providers) {
+        List<Instance> instances = new ArrayList<>(providers.size());
         for (String provider : providers) {
-            Map<String, String> queryParam = parseQueryString(provider);
-            if (isMatch(taskDO, queryParam) && needSync(queryParam)) {
-                Map<String, String> ipAndPortParam = parseIpAndPortString(path + ZOOKEEPER_SEPARATOR + provider);
-                Instance instance = buildSyncInstance(queryParam, ipAndPortParam, taskDO);
-                destNamingService.registerInstance(getServiceNameFromCache(serviceName, queryParam),
-                    getGroupNameOrDefault(taskDO.getGroupName()),
-                    instance);
+            try {
+                ProviderUrl providerUrl = DubboUrlParser.parse(provider);
+                Map<String, String> queryParam = providerUrl.getParameters();
+                if (isMatch(taskDO, queryParam) && needSync(queryParam)) {
+                    Instance instance = buildSyncInstance(providerUrl, taskDO);
+                    instance.setServiceName(getServiceNameFromCache(serviceName, queryParam));
+                    instances.add(instance);
+                }
+            } catch (IllegalArgumentException e) {
+                // one malformed provider node must not fail the load or the reconciliation of all the others
+                log.warn("skip the malformed provider url, taskId:{}, provider:{}", taskDO.getTaskId(), provider, e);
             }
         }
+        return instances;
+    }
+
+    private void registerInstances(TaskDO taskDO, NamingService destNamingService, Collection<Instance> instances)
+        throws NacosException {
+        recordDestServiceNames(taskDO, instances);
+        nacosBatchWriter.execute(instances, instance -> destNamingService
+            .registerInstance(instance.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()), instance));
+    }
+
+    private void recordDestServiceNames(TaskDO taskDO, Collection<Instance> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        Set<String> destServiceNames =
+            destServiceNameMap.computeIfAbsent(taskDO.getTaskId(), key -> ConcurrentHashMap.newKeySet());
+        for (Instance instance : instances) {
+            destServiceNames.add(instance.getServiceName());
+        }
     }
 
     @Override
@@ -195,7 +239,9 @@ public class ZookeeperSyncToNacosServiceImpl implements SyncService {
         }
         try {
 
-            CloseableUtils.closeQuietly(treeCacheMap.get(taskDO.getTaskId()));
+            zookeeperTreeCacheMultiplexer.unsubscribe(taskDO);
+            zookeeperEventBatcher.discard(taskDO.getTaskId());
+            destServiceNameMap.remove(taskDO.getTaskId());
             NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
             if (!ALL_SERVICE_NAME_PATTERN.equals(taskDO.getServiceName())) {
                 if (nacosServiceNameMap.containsKey(taskDO.getServiceName())) {
@@ -243,22 +289,94 @@ public class ZookeeperSyncToNacosServiceImpl implements SyncService {
     }
 
     /**
-     * fetch the Path cache when the task sync
+     * Only the local state is dropped, the synced instances stay in the destination and the new owner takes them
+     * over with its own heartbeats
      */
-    protected TreeCache getTreeCache(TaskDO taskDO) {
-        return treeCacheMap.computeIfAbsent(taskDO.getTaskId(), (key) -> {
-            try {
-                TreeCache treeCache =
-                    new TreeCache(zookeeperServerHolder.get(taskDO.getSourceClusterId()),
-                        DUBBO_ROOT_PATH);
-                treeCache.start();
-                return treeCache;
-            } catch (Exception e) {
-                log.error("zookeeper path children cache start failed, taskId:{}", taskDO.getTaskId(), e);
-                return null;
+    @Override
+    public boolean release(TaskDO taskDO) {
+        try {
+            zookeeperTreeCacheMultiplexer.unsubscribe(taskDO);
+            zookeeperEventBatcher.discard(taskDO.getTaskId());
+            NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+            Set<String> serviceNames = destServiceNameMap.remove(taskDO.getTaskId());
+            if (null != serviceNames) {
+                for (String serviceName : serviceNames) {
+                    stopHeartbeats(destNamingService, serviceName, taskDO.getGroupName(),
+                        taskDO.getSourceClusterId());
+                }
+            }
+        } catch (Exception e) {
+            log.error("release task from zookeeper to nacos was failed, taskId:{}", taskDO.getTaskId(), e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Instance> readSource(TaskDO taskDO) throws Exception {
+        CuratorFramework zk = zookeeperServerHolder.get(taskDO.getSourceClusterId());
+        List<String> serviceList = ALL_SERVICE_NAME_PATTERN.equals(taskDO.getServiceName())
+            ? zk.getChildren().forPath(DUBBO_ROOT_PATH) : Collections.singletonList(taskDO.getServiceName());
+        Map<String, Instance> instanceMap = new HashMap<>();
+        for (String serviceName : serviceList) {
+            String path = String.format(DUBBO_PATH_FORMAT, serviceName);
+            if (null == zk.checkExists().forPath(path)) {
+                continue;
+            }
+            for (Instance instance : buildSyncInstances(taskDO, serviceName, zk.getChildren().forPath(path))) {
+                instanceMap.put(composeInstanceKey(instance), instance);
+            }
+        }
+        return instanceMap;
+    }
+
+    @Override
+    public Map<String, Instance> readDestination(TaskDO taskDO) throws Exception {
+        Set<String> serviceNames = destServiceNameMap.getOrDefault(taskDO.getTaskId(), Collections.emptySet());
+        NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+        Map<String, Instance> instanceMap = new HashMap<>();
+        for (String serviceName : serviceNames) {
+            List<Instance> allInstances = destNamingService.getAllInstances(serviceName,
+                getGroupNameOrDefault(taskDO.getGroupName()), new ArrayList<>(), false);
+            for (Instance instance : allInstances) {
+                if (needDelete(instance.getMetadata(), taskDO)) {
+                    instance.setServiceName(serviceName);
+                    instanceMap.put(composeInstanceKey(instance), instance);
+                }
             }
-        });
+        }
+        return instanceMap;
+    }
 
+    @Override
+    public void repairAdd(TaskDO taskDO, Instance sourceInstance) throws Exception {
+        recordDestServiceNames(taskDO, Collections.singletonList(sourceInstance));
+        nacosServerHolder.get(taskDO.getDestClusterId()).registerInstance(sourceInstance.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), sourceInstance);
+    }
+
+    @Override
+    public void repairRemove(TaskDO taskDO, Instance destInstance) throws Exception {
+        nacosServerHolder.get(taskDO.getDestClusterId()).deregisterInstance(destInstance.getServiceName(),
+            getGroupNameOrDefault(taskDO.getGroupName()), destInstance.getIp(), destInstance.getPort());
+    }
+
+    @Override
+    public void repairAddAll(TaskDO taskDO, Collection<Instance> sourceInstances) throws Exception {
+        registerInstances(taskDO, nacosServerHolder.get(taskDO.getDestClusterId()), sourceInstances);
+    }
+
+    @Override
+    public void repairRemoveAll(TaskDO taskDO, Collection<Instance> destInstances) throws Exception {
+        NamingService destNamingService = nacosServerHolder.get(taskDO.getDestClusterId());
+        nacosBatchWriter.execute(destInstances, instance -> destNamingService
+            .deregisterInstance(instance.getServiceName(), getGroupNameOrDefault(taskDO.getGroupName()),
+                instance.getIp(), instance.getPort()));
+    }
+
+    private String composeInstanceKey(Instance instance) {
+        return instance.getServiceName() + "@" + instance.getIp() + ":" + instance.getPort();
     }
 
     /**
@@ -276,25 +394,21 @@ public class ZookeeperSyncToNacosServiceImpl implements SyncService {
     /**
      * create Nacos service instance
      *
-     * @param queryParam   dubbo metadata
-     * @param ipAndPortMap dubbo ip and address
+     * @param providerUrl dubbo provider url, its parameters are the dubbo metadata
      */
-    protected Instance buildSyncInstance(Map<String, String> queryParam, Map<String, String> ipAndPortMap,
-        TaskDO taskDO) {
+    protected Instance buildSyncInstance(ProviderUrl providerUrl, TaskDO taskDO) {
+        if (null == providerUrl.getIp() || providerUrl.getPort() < 0) {
+            throw new IllegalArgumentException("provider url without address, protocol: " + providerUrl.getProtocol());
+        }
+        Map<String, String> queryParam = providerUrl.getParameters();
         Instance temp = new Instance();
-        temp.setIp(ipAndPortMap.get(INSTANCE_IP_KEY));
-        temp.setPort(Integer.parseInt(ipAndPortMap.get(INSTANCE_PORT_KEY)));
+        temp.setIp(providerUrl.getIp());
+        temp.setPort(providerUrl.getPort());
         temp.setServiceName(getServiceNameFromCache(taskDO.getTaskId(), queryParam));
         temp.setWeight(Double.parseDouble(queryParam.get(WEIGHT_KEY) == null ? "1.0" : queryParam.get(WEIGHT_KEY)));
         temp.setHealthy(true);
 
-        Map<String, String> metaData = new HashMap<>(queryParam);
-        metaData.put(PROTOCOL_KEY, ipAndPortMap.get(PROTOCOL_KEY));
-        metaData.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, taskDO.getDestClusterId());
-        metaData.put(SkyWalkerConstants.SYNC_SOURCE_KEY,
-            skyWalkerCacheServices.getClusterType(taskDO.getSourceClusterId()).getCode());
-        metaData.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, taskDO.getSourceClusterId());
-        temp.setMetadata(metaData);
+        temp.setMetadata(skyWalkerCacheServices.getTaskDecoration(taskDO).decorate(queryParam));
         return temp;
     }
 
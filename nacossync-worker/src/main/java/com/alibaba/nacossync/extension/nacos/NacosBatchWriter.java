@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension.nacos;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Batched write path to the destination Nacos clusters. nacos-client 1.4.x has no batch registration API and the
+ * Nacos 1.x server has no batch endpoint, a raw HTTP writer would also bypass the client heartbeats the ephemeral
+ * instances depend on. So the writes are split into chunks and the chunks are pipelined over a bounded pool, which
+ * keeps several requests in flight instead of paying one round trip per instance.
+ *
+ * @author NacosSync
+ * @version $Id: NacosBatchWriter.java, v 0.1 2026-10-18 PM5:30 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class NacosBatchWriter {
+
+    @Value("${nacos.sync.nacos-writer.chunk-size:50}")
+    private int chunkSize;
+
+    /**
+     * The maximum number of chunks written at the same time
+     */
+    @Value("${nacos.sync.nacos-writer.parallelism:16}")
+    private int parallelism;
+
+    private ExecutorService executorService;
+
+    @PostConstruct
+    public void init() {
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new BasicThreadFactory.Builder()
+            .namingPattern("SkyWalker-NacosWriter-pool-%d").daemon(true).build());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        executorService = threadPoolExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    public void registerInstances(NamingService namingService, String serviceName, String groupName,
+        Collection<Instance> instances) throws NacosException {
+        execute(instances, instance -> namingService.registerInstance(serviceName, groupName, instance));
+    }
+
+    public void deregisterInstances(NamingService namingService, String serviceName, String groupName,
+        Collection<Instance> instances) throws NacosException {
+        execute(instances,
+            instance -> namingService.deregisterInstance(serviceName, groupName, instance.getIp(), instance.getPort()));
+    }
+
+    /**
+     * Apply the write to every item, a small batch is written on the calling thread. A failed write does not stop
+     * the others, the first failure is thrown once every item has been tried.
+     */
+    public <T> void execute(Collection<T> items, NacosWrite<T> write) throws NacosException {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<T> itemList = new ArrayList<>(items);
+        if (itemList.size() <= chunkSize) {
+            throwIfFailed(writeChunk(itemList, write));
+            return;
+        }
+
+        List<Future<NacosException>> futures = new ArrayList<>();
+        for (List<T> chunk : Lists.partition(itemList, chunkSize)) {
+            futures.add(executorService.submit(() -> writeChunk(chunk, write)));
+        }
+        NacosException failure = null;
+        for (Future<NacosException> future : futures) {
+            try {
+                NacosException chunkFailure = future.get();
+                if (null == failure) {
+                    failure = chunkFailure;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NacosException(NacosException.SERVER_ERROR, e);
+            } catch (ExecutionException e) {
+                if (null == failure) {
+                    failure = new NacosException(NacosException.SERVER_ERROR, e.getCause());
+                }
+            }
+        }
+        throwIfFailed(failure);
+    }
+
+    private <T> NacosException writeChunk(List<T> chunk, NacosWrite<T> write) {
+        NacosException failure = null;
+        for (T item : chunk) {
+            try {
+                write.apply(item);
+            } catch (Exception e) {
+                // a malformed item must not cost the rest of its chunk
+                log.warn("nacos batch write failed, item:{}", item, e);
+                if (null == failure) {
+                    failure = e instanceof NacosException ? (NacosException) e
+                        : new NacosException(NacosException.SERVER_ERROR, e);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private void throwIfFailed(NacosException failure) throws NacosException {
+        if (null != failure) {
+            throw failure;
+        }
+    }
+
+    @FunctionalInterface
+    public interface NacosWrite<T> {
+
+        void apply(T item) throws NacosException;
+    }
+}
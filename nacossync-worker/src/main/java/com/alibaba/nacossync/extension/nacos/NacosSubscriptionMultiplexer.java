@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension.nacos;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.Event;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.NacosUtils;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Shares one source subscription between all the tasks watching the same service. The subscriptions are keyed by
+ * (source cluster, namespace, group, service), every push is decoded into one instance list and fanned out to the
+ * tasks of that key, and the subscription is dropped from the source cluster when its last task unsubscribes.
+ *
+ * <p>The tasks are notified on notify lanes chosen by the task id instead of the notifier thread of the Nacos client,
+ * so a slow task does not hold up the other tasks of the subscription. A task is handed only the latest list: pushes
+ * arriving while its notification is queued replace the queued list.
+ *
+ * @author NacosSync
+ * @version $Id: NacosSubscriptionMultiplexer.java, v 0.1 2026-10-18 PM6:20 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class NacosSubscriptionMultiplexer {
+
+    private final NacosServerHolder nacosServerHolder;
+
+    @Value("${nacos.sync.nacos-notify.threads:4}")
+    private int notifyThreads;
+
+    /**
+     * subscription key -> subscription shared by the tasks
+     */
+    private final Map<String, Subscription> subscriptionMap = new HashMap<>();
+
+    private ExecutorService[] notifyLanes;
+
+    public NacosSubscriptionMultiplexer(NacosServerHolder nacosServerHolder) {
+        this.nacosServerHolder = nacosServerHolder;
+    }
+
+    @PostConstruct
+    public void init() {
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+            .namingPattern("SkyWalker-NacosNotify-pool-%d").daemon(true).build();
+        notifyLanes = new ExecutorService[Math.max(notifyThreads, 1)];
+        for (int i = 0; i < notifyLanes.length; i++) {
+            notifyLanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                threadFactory);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService notifyLane : notifyLanes) {
+            notifyLane.shutdownNow();
+        }
+    }
+
+    /**
+     * Attaches the task to the shared subscription of its service, a task joining an existing subscription is
+     * replayed the latest instance list at once since the source cluster pushes nothing until the next change.
+     */
+    public synchronized void subscribe(TaskDO taskDO, InstancesListener listener) throws NacosException {
+        String key = composeKey(taskDO);
+        Subscription subscription = subscriptionMap.get(key);
+        TaskNotifier notifier = new TaskNotifier(taskDO.getTaskId(), listener,
+            notifyLanes[Math.floorMod(taskDO.getTaskId().hashCode(), notifyLanes.length)]);
+        if (null == subscription) {
+            NamingService namingService = nacosServerHolder.get(taskDO.getSourceClusterId());
+            subscription = new Subscription(namingService, taskDO.getServiceName(),
+                NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()));
+            subscription.notifiers.put(taskDO.getTaskId(), notifier);
+            namingService.subscribe(subscription.serviceName, subscription.groupName, subscription);
+            subscriptionMap.put(key, subscription);
+        } else {
+            TaskNotifier previous = subscription.notifiers.put(taskDO.getTaskId(), notifier);
+            List<Instance> latestInstances = subscription.latestInstances;
+            if (null != previous) {
+                previous.cancelled = true;
+            } else if (null != latestInstances) {
+                notifier.offer(latestInstances);
+            }
+        }
+    }
+
+    /**
+     * Detaches the task, the source subscription is only cancelled with the last task of the key.
+     */
+    public synchronized void unsubscribe(TaskDO taskDO) throws NacosException {
+        String key = composeKey(taskDO);
+        Subscription subscription = subscriptionMap.get(key);
+        TaskNotifier notifier = null == subscription ? null : subscription.notifiers.remove(taskDO.getTaskId());
+        if (null == notifier) {
+            return;
+        }
+        notifier.cancelled = true;
+        if (subscription.notifiers.isEmpty()) {
+            subscriptionMap.remove(key);
+            subscription.namingService.unsubscribe(subscription.serviceName, subscription.groupName, subscription);
+        }
+    }
+
+    public synchronized int getSubscriptionCount() {
+        return subscriptionMap.size();
+    }
+
+    private String composeKey(TaskDO taskDO) {
+        return String.join("|", taskDO.getSourceClusterId(), taskDO.getNameSpace(),
+            NacosUtils.getGroupNameOrDefault(taskDO.getGroupName()), taskDO.getServiceName());
+    }
+
+    /**
+     * Receives the shared instance list, which must not be modified
+     */
+    public interface InstancesListener {
+
+        void onChange(List<Instance> instances) throws Exception;
+    }
+
+    private static class Subscription implements EventListener {
+
+        private final NamingService namingService;
+
+        private final String serviceName;
+
+        private final String groupName;
+
+        /**
+         * taskId -> notifier, the number of notifiers is the reference count of the subscription
+         */
+        private final Map<String, TaskNotifier> notifiers = new ConcurrentHashMap<>();
+
+        private volatile List<Instance> latestInstances;
+
+        Subscription(NamingService namingService, String serviceName, String groupName) {
+            this.namingService = namingService;
+            this.serviceName = serviceName;
+            this.groupName = groupName;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            if (!(event instanceof NamingEvent)) {
+                return;
+            }
+            List<Instance> instances;
+            try {
+                instances = Collections.unmodifiableList(
+                    NacosUtils.getInstances((NamingEvent) event, namingService, serviceName, groupName));
+            } catch (NacosException e) {
+                log.error("read the instances of service was failed, serviceName:{}, groupName:{}", serviceName,
+                    groupName, e);
+                return;
+            }
+            latestInstances = instances;
+            for (TaskNotifier notifier : notifiers.values()) {
+                notifier.offer(instances);
+            }
+        }
+    }
+
+    /**
+     * Hands the instance lists to one task on its notify lane, at most one notification of the task is queued
+     */
+    private static class TaskNotifier {
+
+        private final String taskId;
+
+        private final InstancesListener listener;
+
+        private final ExecutorService notifyLane;
+
+        private final AtomicReference<List<Instance>> pendingInstances = new AtomicReference<>();
+
+        private volatile boolean cancelled;
+
+        TaskNotifier(String taskId, InstancesListener listener, ExecutorService notifyLane) {
+            this.taskId = taskId;
+            this.listener = listener;
+            this.notifyLane = notifyLane;
+        }
+
+        void offer(List<Instance> instances) {
+            if (null == pendingInstances.getAndSet(instances)) {
+                notifyLane.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            List<Instance> instances = pendingInstances.getAndSet(null);
+            if (null == instances || cancelled) {
+                return;
+            }
+            try {
+                listener.onChange(instances);
+            } catch (Exception e) {
+                log.error("notify the instance change to task was failed, taskId:{}", taskId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension.zookeeper;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.utils.ZKPaths;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Batched write path to the destination ZooKeeper clusters. The paths are split into chunks, every chunk is sent as
+ * one multi-op transaction in the background and at most max-in-flight transactions are outstanding, so a change of a
+ * thousand instances costs a few round trips instead of one or two per instance. A transaction is all or nothing, a
+ * chunk that fails, most likely on a node created or deleted by someone else, is written again path by path.
+ *
+ * @author NacosSync
+ * @version $Id: ZookeeperBatchWriter.java, v 0.1 2026-10-18 PM11:50 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ZookeeperBatchWriter {
+
+    @Value("${nacos.sync.zookeeper-writer.transaction-size:100}")
+    private int transactionSize;
+
+    /**
+     * The maximum number of transactions outstanding on one write
+     */
+    @Value("${nacos.sync.zookeeper-writer.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${nacos.sync.zookeeper-writer.timeout-ms:30000}")
+    private long timeoutMs;
+
+    /**
+     * Creates the nodes, their parents are created as persistent nodes first. An existing node is left as it is.
+     */
+    public void create(CuratorFramework client, Collection<String> paths, CreateMode createMode) throws Exception {
+        if (paths.isEmpty()) {
+            return;
+        }
+        createParents(client, paths);
+        execute(client, paths, path -> client.transactionOp().create().withMode(createMode).forPath(path), path -> {
+            try {
+                client.create().creatingParentsIfNeeded().withMode(createMode).forPath(path);
+            } catch (KeeperException.NodeExistsException e) {
+                log.debug("zk node already exists, path:{}", path);
+            }
+        });
+    }
+
+    /**
+     * Deletes the nodes, a missing node is ignored
+     */
+    public void delete(CuratorFramework client, Collection<String> paths) throws Exception {
+        if (paths.isEmpty()) {
+            return;
+        }
+        execute(client, paths, path -> client.transactionOp().delete().forPath(path),
+            path -> client.delete().quietly().forPath(path));
+    }
+
+    private void createParents(CuratorFramework client, Collection<String> paths) throws Exception {
+        Set<String> parents = new LinkedHashSet<>();
+        for (String path : paths) {
+            parents.add(ZKPaths.getPathAndNode(path).getPath());
+        }
+        for (String parent : parents) {
+            if (null == client.checkExists().forPath(parent)) {
+                try {
+                    client.create().creatingParentsIfNeeded().forPath(parent);
+                } catch (KeeperException.NodeExistsException e) {
+                    log.debug("zk parent node already exists, path:{}", parent);
+                }
+            }
+        }
+    }
+
+    private void execute(CuratorFramework client, Collection<String> paths, OpBuilder opBuilder,
+        PathWrite fallback) throws Exception {
+        BlockingQueue<CuratorEvent> answers = new LinkedBlockingQueue<>();
+        Iterator<List<String>> chunkIterator = Lists.partition(new ArrayList<>(paths), transactionSize).iterator();
+        int requested = 0;
+        int answered = 0;
+        Exception failure = null;
+        while (chunkIterator.hasNext() || answered < requested) {
+            while (chunkIterator.hasNext() && requested - answered < maxInFlight) {
+                List<String> chunk = chunkIterator.next();
+                List<CuratorOp> operations = new ArrayList<>(chunk.size());
+                for (String path : chunk) {
+                    operations.add(opBuilder.build(path));
+                }
+                client.transaction().inBackground((zkClient, event) -> answers.add(event), chunk)
+                    .forOperations(operations);
+                requested++;
+            }
+            CuratorEvent event = answers.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            if (null == event) {
+                throw new TimeoutException("no answer of zookeeper transaction within " + timeoutMs + "ms");
+            }
+            answered++;
+            if (KeeperException.Code.OK.intValue() == event.getResultCode()) {
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            List<String> chunk = (List<String>) event.getContext();
+            log.info("zk transaction of {} paths failed with code {}, written path by path", chunk.size(),
+                KeeperException.Code.get(event.getResultCode()));
+            for (String path : chunk) {
+                try {
+                    fallback.write(path);
+                } catch (Exception e) {
+                    log.warn("zk write failed, path:{}", path, e);
+                    if (null == failure) {
+                        failure = e;
+                    }
+                }
+            }
+        }
+        if (null != failure) {
+            throw failure;
+        }
+    }
+
+    @FunctionalInterface
+    private interface OpBuilder {
+
+        CuratorOp build(String path) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface PathWrite {
+
+        void write(String path) throws Exception;
+    }
+}
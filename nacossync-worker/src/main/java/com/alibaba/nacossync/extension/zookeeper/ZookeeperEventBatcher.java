@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension.zookeeper;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.util.InstanceKey;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Groups the provider events of a task by service over a short window. Within the window only the last state of an
+ * ip:port is kept, so an instance flapping during a mass restart costs one write instead of one per event. The net
+ * changes are applied in one batch off the Curator event thread, which then never waits on the destination. Every
+ * task@service is pinned to one single threaded flush lane, so the windows of a service are applied one after the
+ * other and a later window can never overtake an earlier one that is still writing.
+ *
+ * @author NacosSync
+ * @version $Id: ZookeeperEventBatcher.java, v 0.1 2026-10-18 PM11:20 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ZookeeperEventBatcher {
+
+    @Autowired
+    private MetricsManager metricsManager;
+
+    /**
+     * How long the events of a service are gathered, 0 applies every event at once on the calling thread
+     */
+    @Value("${nacos.sync.zookeeper-batch.window-ms:100}")
+    private long windowMs;
+
+    /**
+     * The number of flush lanes, one thread each
+     */
+    @Value("${nacos.sync.zookeeper-batch.flush-threads:2}")
+    private int flushThreads;
+
+    /**
+     * taskId@serviceName -> the changes gathered in the open window
+     */
+    private final Map<String, PendingBatch> pendingBatches = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService[] flushLanes;
+
+    @PostConstruct
+    public void init() {
+        BasicThreadFactory threadFactory = new BasicThreadFactory.Builder()
+            .namingPattern("SkyWalker-ZookeeperBatch-pool-%d").daemon(true).build();
+        flushLanes = new ScheduledExecutorService[Math.max(flushThreads, 1)];
+        for (int i = 0; i < flushLanes.length; i++) {
+            flushLanes[i] = new ScheduledThreadPoolExecutor(1, threadFactory);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ScheduledExecutorService flushLane : flushLanes) {
+            flushLane.shutdownNow();
+        }
+    }
+
+    /**
+     * Gathers the registration of the instance, it replaces any change of the same ip:port in the window
+     */
+    public void register(String taskId, String serviceName, Instance instance, BatchApplier applier) {
+        submit(taskId, serviceName, instance, false, applier);
+    }
+
+    /**
+     * Gathers the deregistration of the instance, it replaces any change of the same ip:port in the window
+     */
+    public void deregister(String taskId, String serviceName, Instance instance, BatchApplier applier) {
+        submit(taskId, serviceName, instance, true, applier);
+    }
+
+    /**
+     * Drops the changes of the task that are not applied yet
+     */
+    public void discard(String taskId) {
+        pendingBatches.values().removeIf(pendingBatch -> pendingBatch.taskId.equals(taskId));
+    }
+
+    private void submit(String taskId, String serviceName, Instance instance, boolean removal,
+        BatchApplier applier) {
+        if (windowMs <= 0) {
+            PendingBatch pendingBatch = new PendingBatch(taskId, applier);
+            pendingBatch.changes.put(InstanceKey.of(instance), new Change(instance, removal));
+            apply(pendingBatch);
+            return;
+        }
+
+        String key = taskId + "@" + serviceName;
+        pendingBatches.compute(key, (k, pendingBatch) -> {
+            if (null == pendingBatch) {
+                pendingBatch = new PendingBatch(taskId, applier);
+                // the lane runs the flushes of the key in the order they were scheduled
+                flushLanes[Math.floorMod(key.hashCode(), flushLanes.length)]
+                    .schedule(() -> flush(key), windowMs, TimeUnit.MILLISECONDS);
+            }
+            pendingBatch.changes.put(InstanceKey.of(instance), new Change(instance, removal));
+            return pendingBatch;
+        });
+    }
+
+    private void flush(String key) {
+        PendingBatch pendingBatch = pendingBatches.remove(key);
+        if (null != pendingBatch) {
+            apply(pendingBatch);
+        }
+    }
+
+    private void apply(PendingBatch pendingBatch) {
+        List<Instance> registers = new ArrayList<>();
+        List<Instance> deregisters = new ArrayList<>();
+        pendingBatch.changes.values()
+            .forEach(change -> (change.removal ? deregisters : registers).add(change.instance));
+        try {
+            pendingBatch.applier.apply(registers, deregisters);
+        } catch (Exception e) {
+            log.error("apply the zookeeper events to destination was failed, taskId:{}", pendingBatch.taskId, e);
+            metricsManager.recordError(MetricsStatisticsType.SYNC_ERROR);
+        }
+    }
+
+    /**
+     * Writes the net changes of one window, called on a flush thread or on the calling thread without window
+     */
+    @FunctionalInterface
+    public interface BatchApplier {
+
+        void apply(List<Instance> registers, List<Instance> deregisters) throws Exception;
+    }
+
+    private static class PendingBatch {
+
+        private final String taskId;
+
+        private final BatchApplier applier;
+
+        /**
+         * only written inside the compute of the map, read once the batch was removed from it
+         */
+        private final Map<InstanceKey, Change> changes = new LinkedHashMap<>();
+
+        PendingBatch(String taskId, BatchApplier applier) {
+            this.taskId = taskId;
+            this.applier = applier;
+        }
+    }
+
+    private static class Change {
+
+        private final Instance instance;
+
+        private final boolean removal;
+
+        Change(Instance instance, boolean removal) {
+            this.instance = instance;
+            this.removal = removal;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension.zookeeper;
+
+import static com.alibaba.nacossync.util.DubboConstants.DUBBO_PATH_FORMAT;
+
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.zookeeper.KeeperException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Initial load of the providers of many services. The providers paths are read with background getChildren calls,
+ * at most max-in-flight of them outstanding, and the loading thread turns the answers into items and hands them to the
+ * sink in batches. The sink writes while the next reads are in flight, so a load of thousands of services is bound by
+ * the slower of the two sides instead of their sum of round trips.
+ *
+ * @author NacosSync
+ * @version $Id: ZookeeperProviderLoader.java, v 0.1 2026-10-18 PM10:50 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ZookeeperProviderLoader {
+
+    @Autowired
+    private MetricsManager metricsManager;
+
+    /**
+     * The maximum number of getChildren calls outstanding on one load
+     */
+    @Value("${nacos.sync.zookeeper-loader.max-in-flight:64}")
+    private int maxInFlight;
+
+    /**
+     * The number of items handed to the sink at once
+     */
+    @Value("${nacos.sync.zookeeper-loader.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * How long the load waits for one answer of ZooKeeper
+     */
+    @Value("${nacos.sync.zookeeper-loader.read-timeout-ms:30000}")
+    private long readTimeoutMs;
+
+    @Value("${nacos.sync.zookeeper-loader.progress-interval-ms:5000}")
+    private long progressIntervalMs;
+
+    /**
+     * Loads the providers of the services, a service without providers path is skipped. The first failed read or
+     * write stops the load.
+     *
+     * @return the number of items written
+     */
+    public <T> int load(String taskId, CuratorFramework zk, Collection<String> serviceNames,
+        ProvidersParser<T> parser, BatchSink<T> sink) throws Exception {
+        long start = System.currentTimeMillis();
+        BlockingQueue<CuratorEvent> answers = new LinkedBlockingQueue<>();
+        Iterator<String> serviceIterator = serviceNames.iterator();
+        List<T> batch = new ArrayList<>(batchSize);
+        int requested = 0;
+        int answered = 0;
+        int written = 0;
+        long lastProgress = start;
+        while (serviceIterator.hasNext() || answered < requested) {
+            while (serviceIterator.hasNext() && requested - answered < maxInFlight) {
+                String serviceName = serviceIterator.next();
+                zk.getChildren().inBackground((client, event) -> answers.add(event), serviceName)
+                    .forPath(String.format(DUBBO_PATH_FORMAT, serviceName));
+                requested++;
+            }
+            CuratorEvent event = answers.poll(readTimeoutMs, TimeUnit.MILLISECONDS);
+            if (null == event) {
+                throw new TimeoutException("no answer of zookeeper within " + readTimeoutMs + "ms, taskId:" + taskId);
+            }
+            answered++;
+            batch.addAll(parser.parse((String) event.getContext(), getProviders(event)));
+            if (batch.size() >= batchSize) {
+                sink.write(batch);
+                written += batch.size();
+                batch = new ArrayList<>(batchSize);
+            }
+
+            long now = System.currentTimeMillis();
+            if (now - lastProgress >= progressIntervalMs) {
+                lastProgress = now;
+                log.info("zookeeper initial load of task {}: {}/{} services read, {} instances written, {} services/s",
+                    taskId, answered, serviceNames.size(), written, answered * 1000L / Math.max(1, now - start));
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.write(batch);
+            written += batch.size();
+        }
+
+        long costTime = System.currentTimeMillis() - start;
+        metricsManager.record(MetricsStatisticsType.ZOOKEEPER_INITIAL_LOAD_TIME, costTime);
+        log.info("zookeeper initial load of task {} finished: {} services, {} instances in {}ms", taskId,
+            serviceNames.size(), written, costTime);
+        return written;
+    }
+
+    private static List<String> getProviders(CuratorEvent event) throws KeeperException {
+        KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+        if (KeeperException.Code.NONODE == code) {
+            return Collections.emptyList();
+        }
+        if (KeeperException.Code.OK != code) {
+            throw KeeperException.create(code, event.getPath());
+        }
+        return event.getChildren();
+    }
+
+    /**
+     * Turns the provider node names of one service into the items to write, called on the loading thread
+     */
+    @FunctionalInterface
+    public interface ProvidersParser<T> {
+
+        Collection<T> parse(String serviceName, List<String> providers);
+    }
+
+    @FunctionalInterface
+    public interface BatchSink<T> {
+
+        void write(Collection<T> batch) throws Exception;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.extension.zookeeper;
+
+import static com.alibaba.nacossync.util.DubboConstants.ALL_SERVICE_NAME_PATTERN;
+import static com.alibaba.nacossync.util.DubboConstants.DUBBO_ROOT_PATH;
+import static com.alibaba.nacossync.util.DubboConstants.ZOOKEEPER_SEPARATOR;
+
+import com.alibaba.nacossync.extension.holder.ZookeeperServerHolder;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.DubboUrlParser;
+import com.alibaba.nacossync.util.DubboUrlParser.ProviderUrl;
+import com.alibaba.nacossync.util.StringUtils;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.curator.utils.CloseableUtils;
+import org.springframework.stereotype.Service;
+
+/**
+ * Shares one {@link TreeCache} between all the tasks reading the same path of a source cluster. A task syncing one
+ * service only watches the providers path of that service, the whole /dubbo tree is only cached for the tasks syncing
+ * all services. Every provider event is parsed once and routed through an index of service name -> tasks, so a task
+ * only sees the events of the service it syncs. The cache is closed when its last task unsubscribes.
+ *
+ * @author NacosSync
+ * @version $Id: ZookeeperTreeCacheMultiplexer.java, v 0.1 2026-10-18 PM9:30 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ZookeeperTreeCacheMultiplexer {
+
+    private final ZookeeperServerHolder zookeeperServerHolder;
+
+    /**
+     * cache key -> tree cache shared by the tasks
+     */
+    private final Map<String, SharedTreeCache> treeCacheMap = new HashMap<>();
+
+    /**
+     * taskId -> cache key, the tasks currently attached
+     */
+    private final Map<String, String> taskKeyMap = new HashMap<>();
+
+    public ZookeeperTreeCacheMultiplexer(ZookeeperServerHolder zookeeperServerHolder) {
+        this.zookeeperServerHolder = zookeeperServerHolder;
+    }
+
+    /**
+     * Attaches the task to the shared cache of its watch path, the cache is created and started for the first task.
+     */
+    public synchronized void subscribe(TaskDO taskDO, ProviderListener listener) throws Exception {
+        if (taskKeyMap.containsKey(taskDO.getTaskId())) {
+            return;
+        }
+        String watchPath = getWatchPath(taskDO);
+        String key = taskDO.getSourceClusterId() + "|" + watchPath;
+        SharedTreeCache sharedTreeCache = treeCacheMap.get(key);
+        if (null == sharedTreeCache) {
+            CuratorFramework zk = zookeeperServerHolder.get(taskDO.getSourceClusterId());
+            sharedTreeCache = new SharedTreeCache(newTreeCache(zk, watchPath));
+            sharedTreeCache.treeCache.getListenable().addListener(sharedTreeCache);
+            sharedTreeCache.treeCache.start();
+            treeCacheMap.put(key, sharedTreeCache);
+        }
+        sharedTreeCache.route(taskDO).put(taskDO.getTaskId(), listener);
+        taskKeyMap.put(taskDO.getTaskId(), key);
+    }
+
+    /**
+     * Detaches the task, the cache is only closed with the last task of the key.
+     */
+    public synchronized void unsubscribe(TaskDO taskDO) {
+        String key = taskKeyMap.remove(taskDO.getTaskId());
+        if (null == key) {
+            return;
+        }
+        SharedTreeCache sharedTreeCache = treeCacheMap.get(key);
+        Map<String, ProviderListener> listeners = sharedTreeCache.route(taskDO);
+        listeners.remove(taskDO.getTaskId());
+        if (listeners.isEmpty() && !ALL_SERVICE_NAME_PATTERN.equals(taskDO.getServiceName())) {
+            sharedTreeCache.serviceRoutes.remove(taskDO.getServiceName());
+        }
+        if (sharedTreeCache.isEmpty()) {
+            treeCacheMap.remove(key);
+            CloseableUtils.closeQuietly(sharedTreeCache.treeCache);
+        }
+    }
+
+    public synchronized boolean isSubscribed(TaskDO taskDO) {
+        return taskKeyMap.containsKey(taskDO.getTaskId());
+    }
+
+    public synchronized int getTreeCacheCount() {
+        return treeCacheMap.size();
+    }
+
+    /**
+     * a providers path only holds the provider urls, so its cache does not descend below them
+     */
+    protected TreeCache newTreeCache(CuratorFramework zk, String path) {
+        if (DUBBO_ROOT_PATH.equals(path)) {
+            return new TreeCache(zk, path);
+        }
+        return TreeCache.newBuilder(zk, path).setMaxDepth(1).build();
+    }
+
+    /**
+     * @return /dubbo for the tasks syncing all services, /dubbo/{service}/providers otherwise
+     */
+    static String getWatchPath(TaskDO taskDO) {
+        if (ALL_SERVICE_NAME_PATTERN.equals(taskDO.getServiceName())) {
+            return DUBBO_ROOT_PATH;
+        }
+        return StringUtils.convertDubboProvidersPath(taskDO.getServiceName());
+    }
+
+    /**
+     * @return the service name of a provider path /dubbo/{service}/providers/{url}
+     */
+    private static String parseServiceName(String path) {
+        int start = DUBBO_ROOT_PATH.length() + 1;
+        int end = path.indexOf(ZOOKEEPER_SEPARATOR, start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    /**
+     * Receives the provider events of the task, the parsed url is shared by the tasks and its parameters are read-only
+     */
+    public interface ProviderListener {
+
+        void onEvent(TreeCacheEvent.Type type, String path, ProviderUrl providerUrl) throws Exception;
+    }
+
+    private static class SharedTreeCache implements TreeCacheListener {
+
+        private final TreeCache treeCache;
+
+        /**
+         * service name -> (taskId -> listener)
+         */
+        private final Map<String, Map<String, ProviderListener>> serviceRoutes = new ConcurrentHashMap<>();
+
+        /**
+         * taskId -> listener of the tasks syncing all services
+         */
+        private final Map<String, ProviderListener> allServiceRoutes = new ConcurrentHashMap<>();
+
+        SharedTreeCache(TreeCache treeCache) {
+            this.treeCache = treeCache;
+        }
+
+        Map<String, ProviderListener> route(TaskDO taskDO) {
+            if (ALL_SERVICE_NAME_PATTERN.equals(taskDO.getServiceName())) {
+                return allServiceRoutes;
+            }
+            return serviceRoutes.computeIfAbsent(taskDO.getServiceName(), key -> new ConcurrentHashMap<>());
+        }
+
+        boolean isEmpty() {
+            return serviceRoutes.isEmpty() && allServiceRoutes.isEmpty();
+        }
+
+        @Override
+        public void childEvent(CuratorFramework client, TreeCacheEvent event) {
+            if (null == event.getData() || !StringUtils.isDubboProviderPath(event.getData().getPath())) {
+                return;
+            }
+            String path = event.getData().getPath();
+            Map<String, ProviderListener> listeners = serviceRoutes.get(parseServiceName(path));
+            if (null == listeners && allServiceRoutes.isEmpty()) {
+                return;
+            }
+            ProviderUrl providerUrl = DubboUrlParser.parse(path).unmodifiable();
+            if (null != listeners) {
+                notifyListeners(listeners, event.getType(), path, providerUrl);
+            }
+            notifyListeners(allServiceRoutes, event.getType(), path, providerUrl);
+        }
+
+        private static void notifyListeners(Map<String, ProviderListener> listeners, TreeCacheEvent.Type type,
+            String path, ProviderUrl providerUrl) {
+            listeners.forEach((taskId, listener) -> {
+                try {
+                    listener.onEvent(type, path, providerUrl);
+                } catch (Exception e) {
+                    log.error("notify the provider event to task was failed, taskId:{}", taskId, e);
+                }
+            });
+        }
+    }
+}
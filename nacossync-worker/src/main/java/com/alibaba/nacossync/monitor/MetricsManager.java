@@ -73,4 +73,8 @@ public class MetricsManager implements CommandLineRunner {
         Metrics.counter(metricsStatisticsType.getMetricsName()).increment();
     }
 
+    public void increment(MetricsStatisticsType metricsStatisticsType) {
+        Metrics.counter(metricsStatisticsType.getMetricsName()).increment();
+    }
+
 }
\ No newline at end of file
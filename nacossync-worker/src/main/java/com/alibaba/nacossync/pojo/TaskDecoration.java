@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.pojo;
+
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
+import com.alibaba.nacossync.constant.SkyWalkerConstants;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import lombok.Getter;
+
+/**
+ * Everything a sync task stamps on the instances it writes, computed once when the task starts: the source cluster
+ * type, the cluster ids, the group and the overlay of the sync metadata keys. The instance metadata is decorated with
+ * a copy-on-write view instead of a copy, the view only turns into a real map when somebody writes to it.
+ *
+ * @author NacosSync
+ * @version $Id: TaskDecoration.java, v 0.1 2026-10-18 PM7:40 NacosSync Exp $$
+ */
+@Getter
+public final class TaskDecoration {
+
+    private final String taskId;
+
+    private final String sourceClusterId;
+
+    private final String destClusterId;
+
+    private final String sourceClusterTypeCode;
+
+    private final String groupName;
+
+    /**
+     * the sync metadata keys, they take precedence over the instance metadata
+     */
+    private final Map<String, String> overlay;
+
+    private TaskDecoration(TaskDO taskDO, ClusterTypeEnum sourceClusterType) {
+        this.taskId = taskDO.getTaskId();
+        this.sourceClusterId = taskDO.getSourceClusterId();
+        this.destClusterId = taskDO.getDestClusterId();
+        this.sourceClusterTypeCode = sourceClusterType.getCode();
+        this.groupName = taskDO.getGroupName();
+        Map<String, String> overlay = new LinkedHashMap<>(4);
+        overlay.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, destClusterId);
+        overlay.put(SkyWalkerConstants.SYNC_SOURCE_KEY, sourceClusterTypeCode);
+        overlay.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, sourceClusterId);
+        this.overlay = Collections.unmodifiableMap(overlay);
+    }
+
+    public static TaskDecoration of(TaskDO taskDO, ClusterTypeEnum sourceClusterType) {
+        return new TaskDecoration(taskDO, sourceClusterType);
+    }
+
+    /**
+     * whether this decoration was built for the clusters and the group of the task
+     */
+    public boolean matches(TaskDO taskDO) {
+        return sourceClusterId.equals(taskDO.getSourceClusterId())
+            && destClusterId.equals(taskDO.getDestClusterId())
+            && (groupName == null ? taskDO.getGroupName() == null : groupName.equals(taskDO.getGroupName()));
+    }
+
+    /**
+     * @param metadata the instance metadata, it is read through and never written
+     * @return the metadata with the overlay on top of it
+     */
+    public Map<String, String> decorate(Map<String, String> metadata) {
+        return new DecoratedMetadata(overlay, metadata == null ? Collections.emptyMap() : metadata);
+    }
+
+    /**
+     * Read only view of the overlay on top of the base map until the first write, which copies both into a
+     * {@link HashMap} that backs the view from then on.
+     */
+    private static final class DecoratedMetadata extends AbstractMap<String, String> {
+
+        private final Map<String, String> overlay;
+
+        private final Map<String, String> base;
+
+        private Map<String, String> copy;
+
+        private transient Set<Entry<String, String>> entrySet;
+
+        private DecoratedMetadata(Map<String, String> overlay, Map<String, String> base) {
+            this.overlay = overlay;
+            this.base = base;
+        }
+
+        private Map<String, String> materialize() {
+            if (copy == null) {
+                copy = new HashMap<>(base);
+                copy.putAll(overlay);
+            }
+            return copy;
+        }
+
+        @Override
+        public String get(Object key) {
+            if (copy != null) {
+                return copy.get(key);
+            }
+            String value = overlay.get(key);
+            return value != null ? value : base.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return copy != null ? copy.containsKey(key) : overlay.containsKey(key) || base.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            if (copy != null) {
+                return copy.size();
+            }
+            int size = overlay.size();
+            for (String key : base.keySet()) {
+                if (!overlay.containsKey(key)) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public String put(String key, String value) {
+            return materialize().put(key, value);
+        }
+
+        @Override
+        public String remove(Object key) {
+            return materialize().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            materialize().clear();
+        }
+
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<String, String>>() {
+
+                    @Override
+                    public Iterator<Entry<String, String>> iterator() {
+                        return copy != null ? copy.entrySet().iterator() : new OverlayIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return DecoratedMetadata.this.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        /**
+         * walks the overlay first and then the base entries the overlay does not shadow
+         */
+        private final class OverlayIterator implements Iterator<Entry<String, String>> {
+
+            private final Iterator<Entry<String, String>> overlayIterator = overlay.entrySet().iterator();
+
+            private final Iterator<Entry<String, String>> baseIterator = base.entrySet().iterator();
+
+            private Entry<String, String> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next != null) {
+                    return true;
+                }
+                if (overlayIterator.hasNext()) {
+                    next = overlayIterator.next();
+                    return true;
+                }
+                while (baseIterator.hasNext()) {
+                    Entry<String, String> entry = baseIterator.next();
+                    if (!overlay.containsKey(entry.getKey())) {
+                        next = new SimpleImmutableEntry<>(entry);
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Entry<String, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<String, String> entry = next;
+                next = null;
+                return entry;
+            }
+        }
+    }
+}
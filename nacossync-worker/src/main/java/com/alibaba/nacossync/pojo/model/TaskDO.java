@@ -23,7 +23,7 @@ import java.io.Serializable;
  */
 @Data
 @Entity
-@Table(name = "task")
+@Table(name = "task", indexes = @Index(name = "idx_task_gmt_modified", columnList = "gmtModified"))
 public class TaskDO implements Serializable {
 
     @Id
@@ -70,4 +70,15 @@ public class TaskDO implements Serializable {
      * operation id,The operation id follow when the task status changes
      */
     private String operationId;
+    /**
+     * last modified time in milliseconds, refreshed on every insert and update, the dispatcher only fetches the tasks
+     * modified after its high-water mark
+     */
+    private Long gmtModified;
+
+    @PrePersist
+    @PreUpdate
+    public void refreshGmtModified() {
+        this.gmtModified = System.currentTimeMillis();
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.pojo.model;
+
+import java.io.Serializable;
+
+import javax.persistence.*;
+
+import lombok.Data;
+
+/**
+ * @author NacosSync
+ * @version $Id: WorkerLeaseDO.java, v 0.1 2026-10-18 PM2:10 NacosSync Exp $$
+ */
+@Data
+@Entity
+@Table(name = "worker_lease", indexes = @Index(name = "uk_worker_lease_worker_id", columnList = "workerId",
+    unique = true))
+public class WorkerLeaseDO implements Serializable {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    /**
+     * worker id(unique), eg 192.168.1.10:8083
+     */
+    private String workerId;
+    /**
+     * The IP address of the worker
+     */
+    private String workerIp;
+    /**
+     * last heartbeat time in milliseconds, the lease expires when it is not renewed in time
+     */
+    private Long heartbeatTime;
+}
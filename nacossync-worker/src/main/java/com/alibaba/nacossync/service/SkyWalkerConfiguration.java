@@ -20,10 +20,11 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.google.common.eventbus.EventBus;
+import com.alibaba.nacossync.event.PartitionedEventBus;
 
 /**
  * @author NacosSync
@@ -33,8 +34,9 @@ import com.google.common.eventbus.EventBus;
 public class SkyWalkerConfiguration {
 
     @Bean
-    public EventBus eventBus() {
-        return new EventBus();
+    public PartitionedEventBus eventBus(@Value("${nacos.sync.event.lane-count:8}") int laneCount,
+        @Value("${nacos.sync.event.lane-queue-capacity:10000}") int queueCapacity) {
+        return new PartitionedEventBus(laneCount, queueCapacity);
     }
 
     @Bean
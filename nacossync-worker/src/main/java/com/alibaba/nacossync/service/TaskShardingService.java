@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.alibaba.nacossync.dao.WorkerLeaseAccessService;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.pojo.model.WorkerLeaseDO;
+import com.alibaba.nacossync.util.ConsistentHashRing;
+import com.alibaba.nacossync.util.SkyWalkerUtil;
+
+/**
+ * Every worker renews a lease in the database, the workers holding a live lease form a consistent hash ring and a
+ * task is only executed by the worker it is hashed to. Sharding is disabled by default, in which case this worker
+ * owns every task.
+ *
+ * @author NacosSync
+ * @version $Id: TaskShardingService.java, v 0.1 2026-10-18 PM2:30 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class TaskShardingService {
+
+    @Autowired
+    private WorkerLeaseAccessService workerLeaseAccessService;
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Value("${nacos.sync.sharding.enabled:false}")
+    private boolean enabled;
+
+    @Value("${nacos.sync.sharding.heartbeat-interval-ms:5000}")
+    private long heartbeatIntervalMillis;
+
+    /**
+     * A worker whose lease has not been renewed for this long is removed from the ring
+     */
+    @Value("${nacos.sync.sharding.lease-ttl-ms:20000}")
+    private long leaseTtlMillis;
+
+    @Value("${nacos.sync.sharding.virtual-nodes:160}")
+    private int virtualNodes;
+
+    @Value("${server.port:8083}")
+    private int serverPort;
+
+    private String workerIp;
+
+    private String workerId;
+
+    private volatile ConsistentHashRing ring;
+
+    /**
+     * Bumped on every membership change, so that the dispatcher knows when to rebalance
+     */
+    private volatile long membershipVersion = 0L;
+
+    @PostConstruct
+    public void init() throws Exception {
+        if (!enabled) {
+            return;
+        }
+        workerIp = SkyWalkerUtil.getLocalIp();
+        workerId = workerIp + ":" + serverPort;
+        // join the ring before the first dispatch round, otherwise this worker would briefly own every task
+        heartbeat();
+        scheduledExecutorService.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMillis,
+            heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if the task should be executed by this worker
+     */
+    public boolean isOwner(TaskDO taskDO) {
+        ConsistentHashRing currentRing = ring;
+        if (!enabled || null == currentRing) {
+            return true;
+        }
+        return workerId.equals(currentRing.locate(taskDO.getTaskId()));
+    }
+
+    public long getMembershipVersion() {
+        return membershipVersion;
+    }
+
+    private void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            workerLeaseAccessService.renew(workerId, workerIp, now);
+
+            List<WorkerLeaseDO> aliveLeases = workerLeaseAccessService.findAliveLeases(now - leaseTtlMillis);
+            Set<String> workers = new TreeSet<>();
+            aliveLeases.forEach(workerLeaseDO -> workers.add(workerLeaseDO.getWorkerId()));
+            // a skewed clock must never drop this worker from its own ring
+            workers.add(workerId);
+
+            if (null == ring || !ring.getNodes().equals(workers)) {
+                log.info("sync worker membership changed, workerId:{}, workers:{}", workerId, workers);
+                ring = new ConsistentHashRing(workers, virtualNodes);
+                membershipVersion++;
+            }
+
+            workerLeaseAccessService.deleteExpiredLeases(now - 10 * leaseTtlMillis);
+        } catch (Exception e) {
+            // keep the previous ring, the lease is renewed again on the next round
+            log.warn("sync worker heartbeat failed, workerId:{}", workerId, e);
+        }
+    }
+}
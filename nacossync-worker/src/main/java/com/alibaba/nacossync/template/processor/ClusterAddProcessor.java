@@ -16,6 +16,7 @@
  */
 package com.alibaba.nacossync.template.processor;
 
+import com.alibaba.nacossync.cache.ClusterMetadataCache;
 import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.dao.ClusterAccessService;
 import com.alibaba.nacossync.exception.SkyWalkerException;
@@ -48,6 +49,9 @@ public class ClusterAddProcessor implements Processor<ClusterAddRequest, Cluster
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ClusterMetadataCache clusterMetadataCache;
+
     @Override
     public void process(ClusterAddRequest clusterAddRequest, ClusterAddResult clusterAddResult,
         Object... others) throws Exception {
@@ -83,6 +87,6 @@ public class ClusterAddProcessor implements Processor<ClusterAddRequest, Cluster
         clusterDO.setUserName(clusterAddRequest.getUserName());
         clusterDO.setPassword(clusterAddRequest.getPassword());
         clusterDO.setNamespace(clusterAddRequest.getNamespace());
-        clusterAccessService.insert(clusterDO);
+        clusterMetadataCache.refresh(clusterAccessService.insert(clusterDO));
     }
 }
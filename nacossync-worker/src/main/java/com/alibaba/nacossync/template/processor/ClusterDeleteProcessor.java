@@ -19,6 +19,7 @@ package com.alibaba.nacossync.template.processor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.alibaba.nacossync.cache.ClusterMetadataCache;
 import com.alibaba.nacossync.dao.ClusterAccessService;
 import com.alibaba.nacossync.pojo.result.ClusterDeleteResult;
 import com.alibaba.nacossync.pojo.request.ClusterDeleteRequest;
@@ -34,11 +35,15 @@ public class ClusterDeleteProcessor implements Processor<ClusterDeleteRequest, C
     @Autowired
     private ClusterAccessService clusterAccessService;
 
+    @Autowired
+    private ClusterMetadataCache clusterMetadataCache;
+
     @Override
     public void process(ClusterDeleteRequest clusterDeleteRequest,
                         ClusterDeleteResult clusterDeleteResult, Object... others) throws Exception {
 
         clusterAccessService.deleteByClusterId(clusterDeleteRequest.getClusterId());
+        clusterMetadataCache.invalidate(clusterDeleteRequest.getClusterId());
 
     }
 }
@@ -16,13 +16,14 @@
  */
 package com.alibaba.nacossync.template.processor;
 
+import com.alibaba.nacossync.constant.TaskStatusEnum;
 import com.alibaba.nacossync.dao.TaskAccessService;
-import com.alibaba.nacossync.event.DeleteTaskEvent;
+import com.alibaba.nacossync.exception.SkyWalkerException;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.alibaba.nacossync.pojo.request.TaskDeleteRequest;
 import com.alibaba.nacossync.pojo.result.BaseResult;
 import com.alibaba.nacossync.template.Processor;
-import com.google.common.eventbus.EventBus;
+import com.alibaba.nacossync.util.SkyWalkerUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -37,15 +38,24 @@ public class TaskDeleteProcessor implements Processor<TaskDeleteRequest, BaseRes
 
     @Autowired
     private TaskAccessService taskAccessService;
-    @Autowired
-    private EventBus eventBus;
 
+    /**
+     * The task is only marked as deleted, the worker owning it picks the change up on its next dispatch round, cleans
+     * up the synced instances and then removes the task
+     */
     @Override
     public void process(TaskDeleteRequest taskDeleteRequest, BaseResult baseResult,
-                        Object... others) {
+                        Object... others) throws Exception {
         TaskDO taskDO = taskAccessService.findByTaskId(taskDeleteRequest.getTaskId());
-        eventBus.post(new DeleteTaskEvent(taskDO));
-        log.info("删除同步任务数据之前，发出一个同步事件:" + taskDO);
-        taskAccessService.deleteTaskById(taskDeleteRequest.getTaskId());
+
+        if (null == taskDO) {
+            throw new SkyWalkerException("taskDo is null ,taskId is :"
+                    + taskDeleteRequest.getTaskId());
+        }
+
+        taskDO.setTaskStatus(TaskStatusEnum.DELETE.getCode());
+        taskDO.setOperationId(SkyWalkerUtil.generateOperationId());
+        taskAccessService.addTask(taskDO);
+        log.info("同步任务标记为删除，由任务所属节点清理后删除任务数据:" + taskDO);
     }
 }
@@ -21,15 +21,23 @@ import com.alibaba.nacossync.constant.MetricsStatisticsType;
 import com.alibaba.nacossync.constant.TaskStatusEnum;
 import com.alibaba.nacossync.dao.TaskAccessService;
 import com.alibaba.nacossync.event.DeleteTaskEvent;
+import com.alibaba.nacossync.event.PartitionedEventBus;
+import com.alibaba.nacossync.event.ReleaseTaskEvent;
 import com.alibaba.nacossync.event.SyncTaskEvent;
 import com.alibaba.nacossync.monitor.MetricsManager;
 import com.alibaba.nacossync.pojo.model.TaskDO;
-import com.google.common.eventbus.EventBus;
+import com.alibaba.nacossync.service.TaskShardingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -50,14 +58,46 @@ public class QuerySyncTaskTimer implements CommandLineRunner {
     private TaskAccessService taskAccessService;
 
     @Autowired
-    private EventBus eventBus;
+    private PartitionedEventBus eventBus;
 
     @Autowired
     private ScheduledExecutorService scheduledExecutorService;
 
+    @Autowired
+    private TaskShardingService taskShardingService;
+
+    /**
+     * Rows committed late by another worker may carry a timestamp older than the high-water mark, so every
+     * incremental query looks back this far
+     */
+    @Value("${nacos.sync.dispatch.lookback-ms:10000}")
+    private long lookbackMillis;
+
+    /**
+     * Safety net against clock skew between workers, a full table load is done at this interval
+     */
+    @Value("${nacos.sync.dispatch.full-scan-interval-ms:600000}")
+    private long fullScanIntervalMillis;
+
+    /**
+     * Tasks fetched from the database that have not finished yet, re-dispatched on every round until they finish
+     */
+    private final Map<String, TaskDO> pendingTaskMap = new ConcurrentHashMap<>();
+
+    /**
+     * Tasks this worker has dispatched a sync event for, released when they are handed over to another worker
+     */
+    private final Map<String, TaskDO> runningTaskMap = new ConcurrentHashMap<>();
+
+    private long highWaterMark = 0L;
+
+    private long lastFullScanTime = 0L;
+
+    private long membershipVersion = 0L;
+
     @Override
     public void run(String... args) {
-        /** Fetch the task list from the database every 3 seconds */
+        /** Fetch the changed tasks from the database every 3 seconds */
         scheduledExecutorService.scheduleWithFixedDelay(new CheckRunningStatusThread(), 0, 3000,
                 TimeUnit.MILLISECONDS);
 
@@ -71,27 +111,34 @@ public class QuerySyncTaskTimer implements CommandLineRunner {
             Long start = System.currentTimeMillis();
             try {
 
-                Iterable<TaskDO> taskDOS = taskAccessService.findAll();
+                fetchChangedTasks(start);
 
-                taskDOS.forEach(taskDO -> {
+                Iterator<TaskDO> iterator = pendingTaskMap.values().iterator();
+                while (iterator.hasNext()) {
+                    TaskDO taskDO = iterator.next();
 
-                    if ((null != skyWalkerCacheServices.getFinishedTask(taskDO))) {
+                    if ((null != skyWalkerCacheServices.getFinishedTask(taskDO))
+                        || !taskShardingService.isOwner(taskDO)) {
 
-                        return;
+                        iterator.remove();
+                        continue;
                     }
 
                     if (TaskStatusEnum.SYNC.getCode().equals(taskDO.getTaskStatus())) {
 
+                        runningTaskMap.put(taskDO.getTaskId(), taskDO);
                         eventBus.post(new SyncTaskEvent(taskDO));
                         log.info("从数据库中查询到一个同步任务，发出一个同步事件:" + taskDO);
-                    }
-
-                    if (TaskStatusEnum.DELETE.getCode().equals(taskDO.getTaskStatus())) {
+                    } else if (TaskStatusEnum.DELETE.getCode().equals(taskDO.getTaskStatus())) {
 
+                        runningTaskMap.remove(taskDO.getTaskId());
                         eventBus.post(new DeleteTaskEvent(taskDO));
                         log.info("从数据库中查询到一个删除任务，发出一个同步事件:" + taskDO);
+                    } else {
+
+                        iterator.remove();
                     }
-                });
+                }
 
             } catch (Exception e) {
                 log.warn("CheckRunningStatusThread Exception", e);
@@ -99,5 +146,66 @@ public class QuerySyncTaskTimer implements CommandLineRunner {
 
             metricsManager.record(MetricsStatisticsType.DISPATCHER_TASK, System.currentTimeMillis() - start);
         }
+
+        /**
+         * Only the rows modified after the high-water mark are loaded, except for the first round, the periodic
+         * full scan and the rebalance after a worker joins or leaves, which also drop the pending tasks that no
+         * longer exist in the database or are no longer owned by this worker
+         */
+        private void fetchChangedTasks(long now) {
+            Iterable<TaskDO> taskDOS;
+            long currentMembershipVersion = taskShardingService.getMembershipVersion();
+            boolean fullScan = lastFullScanTime == 0L || now - lastFullScanTime >= fullScanIntervalMillis
+                || currentMembershipVersion != membershipVersion;
+            if (fullScan) {
+                taskDOS = taskAccessService.findAll();
+                pendingTaskMap.clear();
+                lastFullScanTime = now;
+                membershipVersion = currentMembershipVersion;
+                releaseHandedOverTasks(taskDOS);
+            } else {
+                taskDOS = taskAccessService.findAllModifiedAfter(highWaterMark - lookbackMillis);
+            }
+
+            long latestModified = highWaterMark;
+            for (TaskDO taskDO : taskDOS) {
+                pendingTaskMap.put(taskDO.getTaskId(), taskDO);
+                if (null != taskDO.getGmtModified()) {
+                    latestModified = Math.max(latestModified, taskDO.getGmtModified());
+                }
+            }
+            highWaterMark = latestModified;
+        }
+
+        /**
+         * Stop the tasks that were running on this worker but are now owned by another worker, and clean up the
+         * tasks that are gone from the database without having been marked as deleted first
+         */
+        private void releaseHandedOverTasks(Iterable<TaskDO> taskDOS) {
+            Set<String> existingTaskIds = new HashSet<>();
+            Set<String> ownedTaskIds = new HashSet<>();
+            for (TaskDO taskDO : taskDOS) {
+                existingTaskIds.add(taskDO.getTaskId());
+                if (taskShardingService.isOwner(taskDO)) {
+                    ownedTaskIds.add(taskDO.getTaskId());
+                }
+            }
+
+            Iterator<TaskDO> iterator = runningTaskMap.values().iterator();
+            while (iterator.hasNext()) {
+                TaskDO taskDO = iterator.next();
+                if (!existingTaskIds.contains(taskDO.getTaskId())) {
+
+                    iterator.remove();
+                    eventBus.post(new DeleteTaskEvent(taskDO));
+                    log.info("同步任务已从数据库中删除，发出一个删除事件:" + taskDO);
+                } else if (!ownedTaskIds.contains(taskDO.getTaskId())) {
+
+                    iterator.remove();
+                    eventBus.post(new ReleaseTaskEvent(taskDO));
+                    log.info("同步任务已不属于当前节点，发出一个释放事件:" + taskDO);
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.timer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Runs the periodic compensation passes of the sync tasks. Every task gets a fixed phase derived from its key, so the
+ * passes are spread uniformly over the interval instead of hitting the clusters in one spike, and every following
+ * pass is shifted by a random jitter. The passes run on a bounded pool and each cluster involved in a pass has to
+ * grant a permit from its own rate limiter first.
+ *
+ * @author NacosSync
+ * @version $Id: ReconciliationScheduler.java, v 0.1 2026-10-18 PM4:10 NacosSync Exp $$
+ */
+@Slf4j
+@Service
+public class ReconciliationScheduler {
+
+    @Autowired
+    private MetricsManager metricsManager;
+
+    @Value("${nacos.sync.reconcile.interval-ms:300000}")
+    private long intervalMillis;
+
+    /**
+     * The delay between two passes of a task varies by this fraction of the interval
+     */
+    @Value("${nacos.sync.reconcile.jitter-ratio:0.1}")
+    private double jitterRatio;
+
+    @Value("${nacos.sync.reconcile.pool-size:4}")
+    private int poolSize;
+
+    /**
+     * The maximum number of passes started per second against the same cluster
+     */
+    @Value("${nacos.sync.reconcile.cluster-passes-per-second:20}")
+    private double clusterPassesPerSecond;
+
+    private ScheduledExecutorService executorService;
+
+    private final Map<String, Reconciliation> reconciliationMap = new ConcurrentHashMap<>();
+
+    private final Map<String, RateLimiter> clusterRateLimiterMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        executorService = new ScheduledThreadPoolExecutor(poolSize, new BasicThreadFactory.Builder()
+            .namingPattern("SkyWalker-Reconcile-pool-%d").daemon(true).build());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * Schedule the compensation pass of a task, replacing the pass previously scheduled under the same key
+     *
+     * @param key        usually the task id
+     * @param pass       the compensation pass, it should handle its own failures
+     * @param clusterIds the clusters the pass reads from or writes to
+     */
+    public void schedule(String key, Runnable pass, String... clusterIds) {
+        Reconciliation reconciliation = new Reconciliation(key, pass, clusterIds);
+        Reconciliation previous = reconciliationMap.put(key, reconciliation);
+        if (null != previous) {
+            previous.cancel();
+        }
+        long phase = Math.floorMod(Hashing.murmur3_32().hashString(key, StandardCharsets.UTF_8).asInt(),
+            intervalMillis);
+        reconciliation.scheduleNext(phase);
+    }
+
+    public void cancel(String key) {
+        Reconciliation reconciliation = reconciliationMap.remove(key);
+        if (null != reconciliation) {
+            reconciliation.cancel();
+        }
+    }
+
+    private long nextDelay() {
+        long jitter = (long) (intervalMillis * jitterRatio);
+        if (jitter <= 0) {
+            return intervalMillis;
+        }
+        return intervalMillis + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+    }
+
+    private RateLimiter getRateLimiter(String clusterId) {
+        return clusterRateLimiterMap.computeIfAbsent(clusterId, key -> RateLimiter.create(clusterPassesPerSecond));
+    }
+
+    private class Reconciliation implements Runnable {
+
+        private final String key;
+
+        private final Runnable pass;
+
+        private final String[] clusterIds;
+
+        private volatile boolean cancelled = false;
+
+        private volatile ScheduledFuture<?> future;
+
+        private volatile long plannedTime;
+
+        Reconciliation(String key, Runnable pass, String[] clusterIds) {
+            this.key = key;
+            this.pass = pass;
+            this.clusterIds = clusterIds;
+        }
+
+        void scheduleNext(long delay) {
+            plannedTime = System.currentTimeMillis() + delay;
+            future = executorService.schedule(this, delay, TimeUnit.MILLISECONDS);
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> current = future;
+            if (null != current) {
+                current.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                for (String clusterId : clusterIds) {
+                    getRateLimiter(clusterId).acquire();
+                }
+                long start = System.currentTimeMillis();
+                metricsManager.record(MetricsStatisticsType.RECONCILE_LAG, Math.max(0L, start - plannedTime));
+                pass.run();
+                metricsManager.record(MetricsStatisticsType.RECONCILE_PASS_TIME, System.currentTimeMillis() - start);
+            } catch (Throwable e) {
+                log.warn("reconciliation pass error, key:{}", key, e);
+            } finally {
+                if (!cancelled) {
+                    scheduleNext(nextDelay());
+                }
+            }
+        }
+    }
+}
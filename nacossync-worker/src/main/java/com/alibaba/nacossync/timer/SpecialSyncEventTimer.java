@@ -13,9 +13,9 @@
 package com.alibaba.nacossync.timer;
 
 import com.alibaba.nacossync.constant.TaskStatusEnum;
+import com.alibaba.nacossync.event.PartitionedEventBus;
 import com.alibaba.nacossync.extension.event.SpecialSyncEvent;
 import com.alibaba.nacossync.extension.event.SpecialSyncEventBus;
-import com.google.common.eventbus.EventBus;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
@@ -37,7 +37,7 @@ public class SpecialSyncEventTimer implements CommandLineRunner {
     private SpecialSyncEventBus specialSyncEventBus;
 
     @Autowired
-    private EventBus eventBus;
+    private PartitionedEventBus eventBus;
 
     @Autowired
     private ScheduledExecutorService scheduledExecutorService;
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces the triggers of the same key: while an action is running for a key, further triggers only bump a work
+ * counter, and once the running pass finishes exactly one follow-up pass covers all of them. A burst of triggers
+ * therefore costs at most two passes, and no trigger is lost.
+ *
+ * @author NacosSync
+ * @version $Id: Coalescer.java, v 0.1 2026-10-18 PM3:30 NacosSync Exp $$
+ */
+public class Coalescer {
+
+    private final Map<String, AtomicInteger> workCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Run the action on the calling thread, or leave it to the pass already running for the key
+     *
+     * @return false if the action was left to the running pass
+     * @throws Exception the first failure of the passes run by this call, the remaining passes still run
+     */
+    public boolean execute(String key, Action action) throws Exception {
+        AtomicInteger workCounter = workCounters.computeIfAbsent(key, k -> new AtomicInteger());
+        if (workCounter.getAndIncrement() != 0) {
+            return false;
+        }
+
+        Exception failure = null;
+        int missed = 1;
+        do {
+            try {
+                action.run();
+            } catch (Exception e) {
+                if (null == failure) {
+                    failure = e;
+                }
+            }
+            missed = workCounter.addAndGet(-missed);
+        } while (missed != 0);
+
+        if (null != failure) {
+            throw failure;
+        }
+        return true;
+    }
+
+    /**
+     * Forget the key, a pass running for it is not interrupted
+     */
+    public void remove(String key) {
+        workCounters.remove(key);
+    }
+
+    @FunctionalInterface
+    public interface Action {
+
+        void run() throws Exception;
+    }
+}
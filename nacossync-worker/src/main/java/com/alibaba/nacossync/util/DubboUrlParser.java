@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses the url of a Dubbo provider node, like {@code dubbo%3A%2F%2F10.0.0.1%3A20880%2Fcom.foo.Bar%3Fversion%3D1.0}
+ * or the full {@code /dubbo/com.foo.Bar/providers/...} path, into protocol, address, port and parameters. The node name
+ * is percent-decoded into a pooled buffer and tokenized from there, without regular expressions or intermediate
+ * strings. It decodes like {@link java.net.URLDecoder} with UTF-8, keeps the parameters {@link StringUtils} accepts,
+ * and also reads bracketed IPv6 addresses and host names.
+ *
+ * @author NacosSync
+ * @version $Id: DubboUrlParser.java, v 0.1 2026-10-18 PM10:10 NacosSync Exp $$
+ */
+public final class DubboUrlParser {
+
+    /**
+     * a buffer grown past this size by an odd url is not kept for the next one
+     */
+    private static final int MAX_POOLED_BUFFER = 8192;
+
+    private static final ThreadLocal<char[]> CHAR_BUFFER = ThreadLocal.withInitial(() -> new char[1024]);
+
+    private static final ThreadLocal<byte[]> BYTE_BUFFER = ThreadLocal.withInitial(() -> new byte[256]);
+
+    private DubboUrlParser() {
+    }
+
+    /**
+     * @param path the provider node name, or a path ending with it
+     */
+    public static ProviderUrl parse(String path) {
+        int start = path.lastIndexOf(DubboConstants.ZOOKEEPER_SEPARATOR) + 1;
+        char[] chars = CHAR_BUFFER.get();
+        if (chars.length < path.length() - start) {
+            chars = new char[path.length() - start];
+        }
+        int length = decode(path, start, chars);
+        ProviderUrl providerUrl = tokenize(chars, length);
+        if (chars.length <= MAX_POOLED_BUFFER) {
+            CHAR_BUFFER.set(chars);
+        }
+        return providerUrl;
+    }
+
+    /**
+     * percent-decodes path[start..] into chars, a decoded string is never longer than its encoded form
+     *
+     * @return the number of decoded chars
+     */
+    private static int decode(String path, int start, char[] chars) {
+        int length = 0;
+        int i = start;
+        int end = path.length();
+        while (i < end) {
+            char c = path.charAt(i);
+            if (c == '+') {
+                chars[length++] = ' ';
+                i++;
+            } else if (c != '%') {
+                chars[length++] = c;
+                i++;
+            } else {
+                // a run of escapes may encode one multi-byte character, it is decoded as a whole
+                byte[] bytes = BYTE_BUFFER.get();
+                int count = 0;
+                boolean ascii = true;
+                while (i < end && path.charAt(i) == '%') {
+                    if (i + 2 >= end) {
+                        throw new IllegalArgumentException("incomplete escape in " + path);
+                    }
+                    int b = (hex(path, i + 1) << 4) | hex(path, i + 2);
+                    if (count == bytes.length) {
+                        byte[] grown = new byte[bytes.length * 2];
+                        System.arraycopy(bytes, 0, grown, 0, count);
+                        bytes = grown;
+                    }
+                    bytes[count++] = (byte) b;
+                    ascii &= b < 0x80;
+                    i += 3;
+                }
+                if (ascii) {
+                    for (int j = 0; j < count; j++) {
+                        chars[length++] = (char) bytes[j];
+                    }
+                } else {
+                    String decoded = new String(bytes, 0, count, StandardCharsets.UTF_8);
+                    decoded.getChars(0, decoded.length(), chars, length);
+                    length += decoded.length();
+                }
+                if (bytes.length <= MAX_POOLED_BUFFER) {
+                    BYTE_BUFFER.set(bytes);
+                }
+            }
+        }
+        return length;
+    }
+
+    private static int hex(String path, int index) {
+        int digit = Character.digit(path.charAt(index), 16);
+        if (digit < 0) {
+            throw new IllegalArgumentException("illegal hex digit in escape of " + path);
+        }
+        return digit;
+    }
+
+    private static ProviderUrl tokenize(char[] chars, int length) {
+        ProviderUrl providerUrl = new ProviderUrl();
+        int query = indexOf(chars, 0, length, '?');
+        int authorityEnd = query < 0 ? length : query;
+        int scheme = indexOfScheme(chars, authorityEnd);
+        if (scheme >= 0) {
+            providerUrl.protocol = new String(chars, 0, scheme);
+            parseAuthority(chars, scheme + 3, authorityEnd, providerUrl);
+        }
+        providerUrl.parameters = query < 0 ? new HashMap<>(4) : parseParameters(chars, query + 1, length);
+        if (null != providerUrl.protocol) {
+            providerUrl.parameters.put(DubboConstants.PROTOCOL_KEY, providerUrl.protocol);
+        }
+        return providerUrl;
+    }
+
+    private static int indexOfScheme(char[] chars, int end) {
+        for (int i = 0; i + 2 < end; i++) {
+            if (chars[i] == ':' && chars[i + 1] == '/' && chars[i + 2] == '/') {
+                return i;
+            }
+            if (chars[i] == '/') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * reads host[:port] up to the path of the url, the host is either bracketed IPv6 or ends at the first ':'
+     */
+    private static void parseAuthority(char[] chars, int start, int end, ProviderUrl providerUrl) {
+        int authorityEnd = indexOf(chars, start, end, '/');
+        if (authorityEnd < 0) {
+            authorityEnd = end;
+        }
+        int hostEnd;
+        int portStart;
+        if (start < authorityEnd && chars[start] == '[') {
+            int bracket = indexOf(chars, start, authorityEnd, ']');
+            if (bracket < 0) {
+                return;
+            }
+            providerUrl.ip = new String(chars, start + 1, bracket - start - 1);
+            hostEnd = bracket + 1;
+            portStart = hostEnd < authorityEnd && chars[hostEnd] == ':' ? hostEnd + 1 : -1;
+        } else {
+            int colon = indexOf(chars, start, authorityEnd, ':');
+            hostEnd = colon < 0 ? authorityEnd : colon;
+            if (hostEnd == start) {
+                return;
+            }
+            providerUrl.ip = new String(chars, start, hostEnd - start);
+            portStart = colon < 0 ? -1 : colon + 1;
+        }
+        if (portStart < 0 || portStart == authorityEnd) {
+            return;
+        }
+        int port = 0;
+        for (int i = portStart; i < authorityEnd; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9 || port > 65535) {
+                return;
+            }
+            port = port * 10 + digit;
+        }
+        if (port <= 65535) {
+            providerUrl.port = port;
+        }
+    }
+
+    /**
+     * reads k=v pairs separated by '&', a pair whose key is not [_.a-zA-Z0-9][-_.a-zA-Z0-9]* is skipped
+     */
+    private static Map<String, String> parseParameters(char[] chars, int start, int end) {
+        Map<String, String> parameters = new HashMap<>(32);
+        int pairStart = start;
+        while (pairStart < end) {
+            int pairEnd = indexOf(chars, pairStart, end, '&');
+            if (pairEnd < 0) {
+                pairEnd = end;
+            }
+            int equals = validKeyEnd(chars, pairStart, pairEnd);
+            if (equals > pairStart) {
+                parameters.put(new String(chars, pairStart, equals - pairStart),
+                    new String(chars, equals + 1, pairEnd - equals - 1));
+            }
+            pairStart = pairEnd + 1;
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the index of the '=' ending a valid key, -1 if the pair has none
+     */
+    private static int validKeyEnd(char[] chars, int start, int end) {
+        if (start >= end || chars[start] == '-') {
+            return -1;
+        }
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c == '=') {
+                return i;
+            }
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_'
+                || c == '.' || c == '-';
+            if (!valid) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(char[] chars, int start, int end, char target) {
+        for (int i = start; i < end; i++) {
+            if (chars[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * A parsed provider url. The address is null and the port is -1 when the url does not carry them.
+     */
+    public static final class ProviderUrl {
+
+        private String protocol;
+
+        private String ip;
+
+        private int port = -1;
+
+        private Map<String, String> parameters;
+
+        private ProviderUrl() {
+        }
+
+        public String getProtocol() {
+            return protocol;
+        }
+
+        public String getIp() {
+            return ip;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        /**
+         * the query parameters and the protocol of the url
+         */
+        public Map<String, String> getParameters() {
+            return parameters;
+        }
+
+        /**
+         * @return this url with read-only parameters, to be shared between readers
+         */
+        public ProviderUrl unmodifiable() {
+            parameters = Collections.unmodifiableMap(parameters);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Difference between the previous and the current state of a service, as computed by {@link InstanceSnapshot#diff}
+ * in one merge pass over both sides, so a sync costs O(n + m) instead of comparing every old key with every new one.
+ *
+ * @author NacosSync
+ * @version $Id: InstanceDiff.java, v 0.1 2026-10-18 PM6:40 NacosSync Exp $$
+ */
+public final class InstanceDiff<K> {
+
+    private final List<K> added;
+
+    private final List<K> removed;
+
+    private final List<K> changed;
+
+    InstanceDiff(List<K> added, List<K> removed, List<K> changed) {
+        this.added = added;
+        this.removed = removed;
+        this.changed = changed;
+    }
+
+    public List<K> getAdded() {
+        return added;
+    }
+
+    public List<K> getRemoved() {
+        return removed;
+    }
+
+    public List<K> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return the added and the changed keys, the ones that have to be written to the destination
+     */
+    public List<K> getUpserted() {
+        List<K> upserted = new ArrayList<>(added.size() + changed.size());
+        upserted.addAll(added);
+        upserted.addAll(changed);
+        return upserted;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+}
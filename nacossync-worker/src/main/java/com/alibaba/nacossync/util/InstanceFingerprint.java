@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 64-bit content fingerprint of a service instance, covering every attribute that is synced to the destination. Two
+ * instances with the same fingerprint are treated as equal, so a re-register is only sent when the fingerprint
+ * changes.
+ *
+ * @author NacosSync
+ * @version $Id: InstanceFingerprint.java, v 0.1 2026-10-18 PM6:10 NacosSync Exp $$
+ */
+public final class InstanceFingerprint {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private InstanceFingerprint() {
+    }
+
+    public static long of(Instance instance) {
+        return of(instance.getIp(), instance.getPort(), instance.getWeight(), instance.isHealthy(),
+            instance.isEnabled(), instance.isEphemeral(), instance.getClusterName(), instance.getMetadata());
+    }
+
+    public static long of(String ip, int port, double weight, boolean healthy, boolean enabled, boolean ephemeral,
+        String clusterName, Map<String, String> metadata) {
+        Hasher hasher = HASH_FUNCTION.newHasher()
+            .putString(String.valueOf(ip), StandardCharsets.UTF_8)
+            .putInt(port)
+            .putDouble(weight)
+            .putBoolean(healthy)
+            .putBoolean(enabled)
+            .putBoolean(ephemeral)
+            .putString(String.valueOf(clusterName), StandardCharsets.UTF_8);
+        if (null != metadata) {
+            // the entries are hashed in key order, the iteration order of the map must not change the fingerprint
+            for (Map.Entry<String, String> entry : new TreeMap<>(metadata).entrySet()) {
+                hasher.putString(entry.getKey(), StandardCharsets.UTF_8).putByte((byte) 0)
+                    .putString(String.valueOf(entry.getValue()), StandardCharsets.UTF_8).putByte((byte) 0);
+            }
+        }
+        return hasher.hash().asLong();
+    }
+}
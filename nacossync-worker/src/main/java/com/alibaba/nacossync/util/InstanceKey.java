@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+
+/**
+ * Typed identity of a service instance, the address and port. The hash is computed once, so the key is cheap to use
+ * in the hash based diffs and nothing has to be parsed back out of an "ip:port" string.
+ *
+ * @author NacosSync
+ * @version $Id: InstanceKey.java, v 0.1 2026-10-18 PM6:40 NacosSync Exp $$
+ */
+public final class InstanceKey {
+
+    private final String ip;
+
+    private final int port;
+
+    private final int hash;
+
+    private InstanceKey(String ip, int port) {
+        this.ip = ip;
+        this.port = port;
+        this.hash = 31 * ip.hashCode() + port;
+    }
+
+    public static InstanceKey of(String ip, int port) {
+        return new InstanceKey(ip, port);
+    }
+
+    public static InstanceKey of(Instance instance) {
+        return new InstanceKey(instance.getIp(), instance.getPort());
+    }
+
+    public String getIp() {
+        return ip;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InstanceKey)) {
+            return false;
+        }
+        InstanceKey that = (InstanceKey) o;
+        return hash == that.hash && port == that.port && ip.equals(that.ip);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return ip + ":" + port;
+    }
+}
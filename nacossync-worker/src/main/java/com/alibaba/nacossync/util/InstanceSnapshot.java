@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable snapshot of the instances synced by a task, kept as sorted primitive arrays instead of a map of boxed
+ * keys. An IPv4 address and its port are packed into one long, the other instances (IPv6 addresses, host names) are
+ * kept in a small side table and sorted after the packed ones, the fingerprints are stored in a parallel array.
+ * Lookups are binary searches and two snapshots are diffed by a single merge pass.
+ *
+ * @author NacosSync
+ * @version $Id: InstanceSnapshot.java, v 0.1 2026-10-18 PM7:10 NacosSync Exp $$
+ */
+public final class InstanceSnapshot {
+
+    public static final InstanceSnapshot EMPTY = new InstanceSnapshot(new long[0], new long[0], new InstanceKey[0]);
+
+    /**
+     * marks a key whose instance is kept in the side table, the low bits carry the hash of the instance key
+     */
+    private static final long SIDE_TABLE_FLAG = 1L << 62;
+
+    private static final int MAX_PORT = 0xFFFF;
+
+    private final long[] keys;
+
+    private final long[] fingerprints;
+
+    /**
+     * the instances of the flagged keys, in the order of the flagged keys at the end of {@link #keys}
+     */
+    private final InstanceKey[] sideTable;
+
+    private final int packedCount;
+
+    private InstanceSnapshot(long[] keys, long[] fingerprints, InstanceKey[] sideTable) {
+        this.keys = keys;
+        this.fingerprints = fingerprints;
+        this.sideTable = sideTable;
+        this.packedCount = keys.length - sideTable.length;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public boolean contains(String ip, int port) {
+        return indexOf(ip, port) >= 0;
+    }
+
+    /**
+     * @return the fingerprint of the instance, null if the instance is not in the snapshot
+     */
+    public Long getFingerprint(String ip, int port) {
+        int index = indexOf(ip, port);
+        return index < 0 ? null : fingerprints[index];
+    }
+
+    public InstanceKey getKey(int index) {
+        if (index >= packedCount) {
+            return sideTable[index - packedCount];
+        }
+        long key = keys[index];
+        return InstanceKey.of(decodeIp(key >>> 16), (int) (key & MAX_PORT));
+    }
+
+    /**
+     * Merges the two sorted snapshots, a key present on both sides with another fingerprint is reported as changed.
+     */
+    public static InstanceDiff<InstanceKey> diff(InstanceSnapshot previous, InstanceSnapshot current) {
+        List<InstanceKey> added = new ArrayList<>();
+        List<InstanceKey> removed = new ArrayList<>();
+        List<InstanceKey> changed = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < previous.size() && j < current.size()) {
+            int compare = compare(previous, i, current, j);
+            if (compare < 0) {
+                removed.add(previous.getKey(i++));
+            } else if (compare > 0) {
+                added.add(current.getKey(j++));
+            } else {
+                if (previous.fingerprints[i] != current.fingerprints[j]) {
+                    changed.add(current.getKey(j));
+                }
+                i++;
+                j++;
+            }
+        }
+        while (i < previous.size()) {
+            removed.add(previous.getKey(i++));
+        }
+        while (j < current.size()) {
+            added.add(current.getKey(j++));
+        }
+        return new InstanceDiff<>(added, removed, changed);
+    }
+
+    private int indexOf(String ip, int port) {
+        long key = encode(ip, port);
+        if ((key & SIDE_TABLE_FLAG) == 0) {
+            int index = Arrays.binarySearch(keys, 0, packedCount, key);
+            return index < 0 ? -1 : index;
+        }
+        int index = Arrays.binarySearch(keys, packedCount, keys.length, key);
+        if (index < 0) {
+            return -1;
+        }
+        // several side table instances can share the hash, scan the run of equal keys
+        while (index > packedCount && keys[index - 1] == key) {
+            index--;
+        }
+        for (; index < keys.length && keys[index] == key; index++) {
+            InstanceKey instanceKey = sideTable[index - packedCount];
+            if (instanceKey.getPort() == port && instanceKey.getIp().equals(ip)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static int compare(InstanceSnapshot left, int i, InstanceSnapshot right, int j) {
+        int compare = Long.compare(left.keys[i], right.keys[j]);
+        if (compare != 0 || i < left.packedCount) {
+            return compare;
+        }
+        return compareSideTableKey(left.sideTable[i - left.packedCount], right.sideTable[j - right.packedCount]);
+    }
+
+    private static int compareSideTableKey(InstanceKey left, InstanceKey right) {
+        int compare = left.getIp().compareTo(right.getIp());
+        return compare != 0 ? compare : Integer.compare(left.getPort(), right.getPort());
+    }
+
+    /**
+     * @return the IPv4 address shifted left by 16 bits or'ed with the port, or the flagged hash of the instance key
+     * if the address is not a canonical IPv4 address or the port is out of range
+     */
+    static long encode(String ip, int port) {
+        long address = port < 0 || port > MAX_PORT ? -1 : parseIpv4(ip);
+        if (address < 0) {
+            return SIDE_TABLE_FLAG | (InstanceKey.of(ip, port).hashCode() & 0xFFFFFFFFL);
+        }
+        return address << 16 | port;
+    }
+
+    /**
+     * @return the unsigned address, -1 if the text is not a canonical dotted quad, which keeps the decoding lossless
+     */
+    private static long parseIpv4(String ip) {
+        long address = 0;
+        int octets = 0;
+        int length = ip.length();
+        int i = 0;
+        while (i < length) {
+            int start = i;
+            int octet = 0;
+            while (i < length && ip.charAt(i) != '.') {
+                char c = ip.charAt(i);
+                if (c < '0' || c > '9' || i - start >= 3) {
+                    return -1;
+                }
+                octet = octet * 10 + (c - '0');
+                i++;
+            }
+            if (i == start || octet > 255 || (ip.charAt(start) == '0' && i - start > 1)) {
+                return -1;
+            }
+            address = address << 8 | octet;
+            octets++;
+            if (i < length) {
+                // skip the dot, a trailing dot leaves no room for the next octet
+                i++;
+                if (i == length) {
+                    return -1;
+                }
+            }
+        }
+        return octets == 4 ? address : -1;
+    }
+
+    private static String decodeIp(long address) {
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "." + ((address >>> 8) & 0xFF) + "."
+            + (address & 0xFF);
+    }
+
+    /**
+     * Collects the instances of a snapshot, a later instance with the same address and port replaces the earlier one.
+     */
+    public static final class Builder {
+
+        private long[] keys;
+
+        private long[] fingerprints;
+
+        private InstanceKey[] instanceKeys;
+
+        private int size;
+
+        private boolean hasSideTableKey;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 4);
+            keys = new long[capacity];
+            fingerprints = new long[capacity];
+            instanceKeys = new InstanceKey[capacity];
+        }
+
+        public Builder add(String ip, int port, long fingerprint) {
+            if (size == keys.length) {
+                int capacity = size << 1;
+                keys = Arrays.copyOf(keys, capacity);
+                fingerprints = Arrays.copyOf(fingerprints, capacity);
+                instanceKeys = Arrays.copyOf(instanceKeys, capacity);
+            }
+            long key = encode(ip, port);
+            keys[size] = key;
+            fingerprints[size] = fingerprint;
+            if ((key & SIDE_TABLE_FLAG) != 0) {
+                instanceKeys[size] = InstanceKey.of(ip, port);
+                hasSideTableKey = true;
+            }
+            size++;
+            return this;
+        }
+
+        public InstanceSnapshot build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            sort(0, size - 1);
+            // drop the duplicates, the last added one wins
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (count > 0 && compareAt(count - 1, i) == 0) {
+                    count--;
+                }
+                keys[count] = keys[i];
+                fingerprints[count] = fingerprints[i];
+                instanceKeys[count] = instanceKeys[i];
+                count++;
+            }
+            int packedCount = count;
+            while (hasSideTableKey && packedCount > 0 && (keys[packedCount - 1] & SIDE_TABLE_FLAG) != 0) {
+                packedCount--;
+            }
+            return new InstanceSnapshot(Arrays.copyOf(keys, count), Arrays.copyOf(fingerprints, count),
+                Arrays.copyOfRange(instanceKeys, packedCount, count));
+        }
+
+        private int compareAt(int i, int j) {
+            int compare = Long.compare(keys[i], keys[j]);
+            if (compare != 0 || (keys[i] & SIDE_TABLE_FLAG) == 0) {
+                return compare;
+            }
+            return compareSideTableKey(instanceKeys[i], instanceKeys[j]);
+        }
+
+        /**
+         * Stable insertion sort for short ranges and merge of sorted halves otherwise, stability keeps the last added
+         * duplicate after the earlier ones.
+         */
+        private void sort(int low, int high) {
+            if (high - low < 16) {
+                for (int i = low + 1; i <= high; i++) {
+                    for (int j = i; j > low && compareAt(j - 1, j) > 0; j--) {
+                        swap(j - 1, j);
+                    }
+                }
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            sort(low, middle);
+            sort(middle + 1, high);
+            if (compareAt(middle, middle + 1) <= 0) {
+                return;
+            }
+            merge(low, middle, high);
+        }
+
+        private void merge(int low, int middle, int high) {
+            int length = high - low + 1;
+            long[] mergedKeys = new long[length];
+            long[] mergedFingerprints = new long[length];
+            InstanceKey[] mergedInstanceKeys = new InstanceKey[length];
+            int i = low;
+            int j = middle + 1;
+            for (int k = 0; k < length; k++) {
+                int from = j > high || (i <= middle && compareAt(i, j) <= 0) ? i++ : j++;
+                mergedKeys[k] = keys[from];
+                mergedFingerprints[k] = fingerprints[from];
+                mergedInstanceKeys[k] = instanceKeys[from];
+            }
+            System.arraycopy(mergedKeys, 0, keys, low, length);
+            System.arraycopy(mergedFingerprints, 0, fingerprints, low, length);
+            System.arraycopy(mergedInstanceKeys, 0, instanceKeys, low, length);
+        }
+
+        private void swap(int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            long fingerprint = fingerprints[i];
+            fingerprints[i] = fingerprints[j];
+            fingerprints[j] = fingerprint;
+            InstanceKey instanceKey = instanceKeys[i];
+            instanceKeys[i] = instanceKeys[j];
+            instanceKeys[j] = instanceKey;
+        }
+    }
+}
@@ -1,6 +1,22 @@
 package com.alibaba.nacossync.util;
 
 import com.alibaba.nacos.api.common.Constants;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.utils.NamingUtils;
+import com.alibaba.nacos.client.naming.NacosNamingService;
+import com.alibaba.nacos.client.naming.beat.BeatInfo;
+import com.alibaba.nacos.client.naming.beat.BeatReactor;
+import com.alibaba.nacossync.constant.SkyWalkerConstants;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 
 public class NacosUtils {
@@ -8,4 +24,61 @@ public class NacosUtils {
     public static String getGroupNameOrDefault(String groupName) {
         return StringUtils.defaultIfBlank(groupName, Constants.DEFAULT_GROUP);
     }
+
+    /**
+     * 推送事件中已经携带了服务的全量实例列表，直接使用；只有事件中没有实例列表时才回查订阅的本地缓存
+     */
+    public static List<Instance> getInstances(NamingEvent event, NamingService namingService, String serviceName,
+        String groupName) throws NacosException {
+        if (null != event && null != event.getInstances()) {
+            return event.getInstances();
+        }
+        return namingService.getAllInstances(serviceName, getGroupNameOrDefault(groupName), new ArrayList<>(), true);
+    }
+
+    /**
+     * 停止当前节点为同步实例发送的心跳，但不注销实例：实例保留在目标集群中，由接管任务的节点重新注册并续约
+     *
+     * @param sourceClusterId only the beats of the instances synced from this cluster are stopped
+     */
+    public static void stopHeartbeats(NamingService namingService, String serviceName, String groupName,
+        String sourceClusterId) {
+        if (!(namingService instanceof NacosNamingService)) {
+            return;
+        }
+        BeatReactor beatReactor = ((NacosNamingService) namingService).getBeatReactor();
+        String groupedServiceName = NamingUtils.getGroupedName(serviceName, getGroupNameOrDefault(groupName));
+        for (BeatInfo beatInfo : beatReactor.dom2Beat.values()) {
+            Map<String, String> metadata = beatInfo.getMetadata();
+            if (groupedServiceName.equals(beatInfo.getServiceName()) && null != metadata
+                && StringUtils.equals(sourceClusterId, metadata.get(SkyWalkerConstants.SOURCE_CLUSTERID_KEY))) {
+                beatReactor.removeBeatInfo(groupedServiceName, beatInfo.getIp(), beatInfo.getPort());
+            }
+        }
+    }
+
+    /**
+     * 需要写入目标集群的实例：新增或者发生变化的实例，以及目标集群中丢失的同步实例（例如Nacos重启之后）
+     *
+     * @param syncedKeys      the keys of the instances currently synced from the source
+     * @param destInstances   the instances of the service in the destination
+     * @param sourceClusterId the instances of the destination written from other clusters are not looked at
+     */
+    public static Collection<InstanceKey> getUpsertedOrMissing(InstanceDiff<InstanceKey> instanceDiff,
+        Collection<InstanceKey> syncedKeys, List<Instance> destInstances, String sourceClusterId) {
+        Set<InstanceKey> destKeys = new HashSet<>(destInstances.size() * 4 / 3 + 1);
+        for (Instance destInstance : destInstances) {
+            if (null != destInstance.getMetadata() && StringUtils.equals(sourceClusterId,
+                destInstance.getMetadata().get(SkyWalkerConstants.SOURCE_CLUSTERID_KEY))) {
+                destKeys.add(InstanceKey.of(destInstance));
+            }
+        }
+        Set<InstanceKey> upserted = new LinkedHashSet<>(instanceDiff.getUpserted());
+        for (InstanceKey syncedKey : syncedKeys) {
+            if (!destKeys.contains(syncedKey)) {
+                upserted.add(syncedKey);
+            }
+        }
+        return upserted;
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license agreements. See the NOTICE
+ * file distributed with this work for additional information regarding copyright ownership. The ASF licenses this file
+ * to You under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package com.alibaba.nacossync.util;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The zk paths rendered for the instances of one task, keyed by ip:port and tagged with the content fingerprint of
+ * the instance. A path is only rendered again when its instance is new or its fingerprint changed, every render call
+ * keeps just the instances it was given, so the paths of instances that disappeared are evicted with it. The render
+ * context, whatever else goes into a path, is compared by identity and drops all paths once it is replaced.
+ *
+ * @author NacosSync
+ * @version $Id: RenderedPathCache.java, v 0.1 2026-10-18 PM11:58 NacosSync Exp $$
+ */
+public final class RenderedPathCache {
+
+    private Map<InstanceKey, RenderedPath> renderedPaths = new HashMap<>();
+
+    private Object renderContext;
+
+    /**
+     * @return the sorted paths of the instances, a path shared by several instances is returned once
+     */
+    public synchronized String[] render(Collection<Instance> instances, Object renderContext, PathRenderer renderer)
+        throws Exception {
+        if (this.renderContext != renderContext) {
+            this.renderContext = renderContext;
+            renderedPaths = new HashMap<>();
+        }
+        Map<InstanceKey, RenderedPath> previousPaths = renderedPaths;
+        Map<InstanceKey, RenderedPath> currentPaths = new HashMap<>(instances.size() * 4 / 3 + 1);
+        String[] paths = new String[instances.size()];
+        int i = 0;
+        for (Instance instance : instances) {
+            InstanceKey instanceKey = InstanceKey.of(instance);
+            long fingerprint = InstanceFingerprint.of(instance);
+            RenderedPath renderedPath = previousPaths.get(instanceKey);
+            if (null == renderedPath || renderedPath.fingerprint != fingerprint) {
+                renderedPath = new RenderedPath(fingerprint, renderer.render(instance));
+            }
+            currentPaths.put(instanceKey, renderedPath);
+            paths[i++] = renderedPath.path;
+        }
+        renderedPaths = currentPaths;
+        return distinct(paths);
+    }
+
+    public synchronized int size() {
+        return renderedPaths.size();
+    }
+
+    private static String[] distinct(String[] paths) {
+        Arrays.sort(paths);
+        int size = 0;
+        for (String path : paths) {
+            if (size == 0 || !paths[size - 1].equals(path)) {
+                paths[size++] = path;
+            }
+        }
+        return size == paths.length ? paths : Arrays.copyOf(paths, size);
+    }
+
+    @FunctionalInterface
+    public interface PathRenderer {
+
+        String render(Instance instance) throws Exception;
+    }
+
+    private static final class RenderedPath {
+
+        private final long fingerprint;
+
+        private final String path;
+
+        private RenderedPath(long fingerprint, String path) {
+            this.fingerprint = fingerprint;
+            this.path = path;
+        }
+    }
+}
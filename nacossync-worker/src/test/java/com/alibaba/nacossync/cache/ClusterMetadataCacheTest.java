@@ -0,0 +1,86 @@
+package com.alibaba.nacossync.cache;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
+import com.alibaba.nacossync.constant.MetricsStatisticsType;
+import com.alibaba.nacossync.dao.ClusterAccessService;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.pojo.model.ClusterDO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 20:40
+ * @see ClusterMetadataCache
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ClusterMetadataCacheTest {
+
+    private static final String TEST_CLUSTER_ID = "test-cluster-id";
+
+    @Mock
+    private ClusterAccessService clusterAccessService;
+
+    @Mock
+    private MetricsManager metricsManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ClusterMetadataCache clusterMetadataCache;
+
+    @Test
+    public void testLoadOnMissOnly() {
+        doReturn(buildCluster(TEST_CLUSTER_ID, "[\"127.0.0.1:8848\",\"127.0.0.2:8848\"]"))
+            .when(clusterAccessService).findByClusterId(TEST_CLUSTER_ID);
+
+        for (int i = 0; i < 3; i++) {
+            ClusterMetadataCache.ClusterMetadata clusterMetadata = clusterMetadataCache.get(TEST_CLUSTER_ID);
+            Assert.assertEquals(ClusterTypeEnum.NACOS, clusterMetadata.getClusterType());
+            Assert.assertEquals(Arrays.asList("127.0.0.1:8848", "127.0.0.2:8848"),
+                clusterMetadata.getConnectKeyList());
+        }
+
+        verify(clusterAccessService, times(1)).findByClusterId(TEST_CLUSTER_ID);
+        verify(metricsManager, times(1)).increment(MetricsStatisticsType.CLUSTER_CACHE_MISS);
+        verify(metricsManager, times(2)).increment(MetricsStatisticsType.CLUSTER_CACHE_HIT);
+
+        clusterMetadataCache.invalidate(TEST_CLUSTER_ID);
+        clusterMetadataCache.get(TEST_CLUSTER_ID);
+        verify(clusterAccessService, times(2)).findByClusterId(TEST_CLUSTER_ID);
+    }
+
+    @Test
+    public void testReconcile() {
+        clusterMetadataCache.refresh(buildCluster("removed-cluster-id", "[\"127.0.0.1:8848\"]"));
+        ClusterDO changed = buildCluster(TEST_CLUSTER_ID, "[\"127.0.0.3:8848\"]");
+        doReturn(Collections.singletonList(changed)).when(clusterAccessService).findAll();
+
+        clusterMetadataCache.reconcile();
+
+        Assert.assertEquals(1, clusterMetadataCache.size());
+        Assert.assertEquals(Collections.singletonList("127.0.0.3:8848"),
+            clusterMetadataCache.get(TEST_CLUSTER_ID).getConnectKeyList());
+    }
+
+    private ClusterDO buildCluster(String clusterId, String connectKeyList) {
+        ClusterDO clusterDO = new ClusterDO();
+        clusterDO.setClusterId(clusterId);
+        clusterDO.setClusterType(ClusterTypeEnum.NACOS.name());
+        clusterDO.setConnectKeyList(connectKeyList);
+        return clusterDO;
+    }
+}
@@ -0,0 +1,71 @@
+package com.alibaba.nacossync.event;
+
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.google.common.eventbus.Subscribe;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 11:02
+ * @see PartitionedEventBus
+ */
+public class PartitionedEventBusTest {
+
+    @Test
+    public void testEventsOfSameTaskAreOrdered() throws Exception {
+        PartitionedEventBus eventBus = new PartitionedEventBus(4, 100);
+        CountDownLatch latch = new CountDownLatch(20);
+        List<String> operations = new CopyOnWriteArrayList<>();
+        eventBus.register(new Object() {
+            @Subscribe
+            public void listen(SyncTaskEvent event) {
+                operations.add(event.getTaskDO().getOperationId());
+                latch.countDown();
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(eventBus.post(new SyncTaskEvent(buildTask("task", String.valueOf(i)))));
+        }
+
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(String.valueOf(i), operations.get(i));
+        }
+        eventBus.shutdown();
+    }
+
+    @Test
+    public void testDuplicateEventIsNotQueued() throws Exception {
+        PartitionedEventBus eventBus = new PartitionedEventBus(1, 100);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        eventBus.register(new Object() {
+            @Subscribe
+            public void listen(SyncTaskEvent event) throws InterruptedException {
+                blocked.countDown();
+                release.await();
+            }
+        });
+
+        TaskDO taskDO = buildTask("task", "operation");
+        Assert.assertTrue(eventBus.post(new SyncTaskEvent(taskDO)));
+        Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(eventBus.post(new SyncTaskEvent(taskDO)));
+        Assert.assertTrue(eventBus.post(new DeleteTaskEvent(taskDO)));
+        release.countDown();
+        eventBus.shutdown();
+    }
+
+    private TaskDO buildTask(String taskId, String operationId) {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(taskId);
+        taskDO.setOperationId(operationId);
+        return taskDO;
+    }
+}
@@ -0,0 +1,69 @@
+package com.alibaba.nacossync.event.listener;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
+import com.alibaba.nacossync.dao.TaskAccessService;
+import com.alibaba.nacossync.event.DeleteTaskEvent;
+import com.alibaba.nacossync.extension.SyncManagerService;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-19 10:20
+ * @see EventListener
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class EventListenerTest {
+
+    private static final String TEST_TASK_ID = "test-task-id";
+
+    @Mock
+    private MetricsManager metricsManager;
+
+    @Mock
+    private SyncManagerService syncManagerService;
+
+    @Mock
+    private SkyWalkerCacheServices skyWalkerCacheServices;
+
+    @Mock
+    private TaskAccessService taskAccessService;
+
+    @InjectMocks
+    private EventListener eventListener;
+
+    @Test
+    public void testTaskIsRemovedAfterTheCleanup() throws Exception {
+        TaskDO taskDO = buildTask();
+        doReturn(true).when(syncManagerService).delete(taskDO);
+
+        eventListener.listenerDeleteTaskEvent(new DeleteTaskEvent(taskDO));
+        verify(taskAccessService).deleteTaskById(TEST_TASK_ID);
+        verify(skyWalkerCacheServices).addFinishedTask(taskDO);
+    }
+
+    @Test
+    public void testTaskIsKeptWhenTheCleanupFails() throws Exception {
+        TaskDO taskDO = buildTask();
+        doReturn(false).when(syncManagerService).delete(taskDO);
+
+        eventListener.listenerDeleteTaskEvent(new DeleteTaskEvent(taskDO));
+        verify(taskAccessService, never()).deleteTaskById(TEST_TASK_ID);
+        verify(skyWalkerCacheServices, never()).addFinishedTask(taskDO);
+    }
+
+    private TaskDO buildTask() {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        return taskDO;
+    }
+}
@@ -0,0 +1,58 @@
+package com.alibaba.nacossync.extension;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.timer.ReconciliationScheduler;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 17:05
+ * @see ReconcileEngine
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ReconcileEngineTest {
+
+    @Mock
+    private ReconciliationScheduler reconciliationScheduler;
+
+    @Mock
+    private MetricsManager metricsManager;
+
+    @Mock
+    private ReconcilableSyncService<String, String> syncService;
+
+    @InjectMocks
+    private ReconcileEngine reconcileEngine;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(reconcileEngine, "destClusterConcurrency", 1);
+    }
+
+    @Test
+    public void testOnlyDeltaIsRepaired() throws Exception {
+        TaskDO taskDO = mock(TaskDO.class);
+        when(taskDO.getDestClusterId()).thenReturn("test-dest-cluster-id");
+        when(syncService.readSource(taskDO)).thenReturn(ImmutableMap.of("a", "source-a", "b", "source-b"));
+        when(syncService.readDestination(taskDO)).thenReturn(ImmutableMap.of("b", "dest-b", "c", "dest-c"));
+
+        reconcileEngine.reconcile(taskDO, syncService);
+
+        verify(syncService).repairAddAll(taskDO, Collections.singletonList("source-a"));
+        verify(syncService).repairRemoveAll(taskDO, Collections.singletonList("dest-c"));
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.alibaba.nacossync.extension;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.alibaba.nacossync.cache.ClusterMetadataCache;
+import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
+import com.alibaba.nacossync.pojo.TaskDecoration;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.SkyWalkerUtil;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 21:10
+ * @see SyncManagerService
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SyncManagerServiceTest {
+
+    private static final String TEST_SOURCE_CLUSTER_ID = "test-source-cluster-id";
+
+    private static final String TEST_DEST_CLUSTER_ID = "test-dest-cluster-id";
+
+    @Mock
+    private SkyWalkerCacheServices skyWalkerCacheServices;
+
+    @Mock
+    private ReconcileEngine reconcileEngine;
+
+    @Mock
+    private ClusterMetadataCache clusterMetadataCache;
+
+    @Mock
+    private SyncService syncService;
+
+    @InjectMocks
+    private SyncManagerService syncManagerService;
+
+    private TaskDO taskDO;
+
+    @Before
+    public void setUp() {
+        ConcurrentHashMap<String, SyncService> syncServiceMap = new ConcurrentHashMap<>();
+        syncServiceMap.put(SkyWalkerUtil.generateSyncKey(ClusterTypeEnum.CONSUL, ClusterTypeEnum.NACOS), syncService);
+        Whitebox.setInternalState(syncManagerService, "syncServiceMap", syncServiceMap);
+
+        taskDO = new TaskDO();
+        taskDO.setTaskId("test-task-id");
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        doReturn(ClusterTypeEnum.CONSUL).when(skyWalkerCacheServices).getClusterType(TEST_SOURCE_CLUSTER_ID);
+        doReturn(ClusterTypeEnum.NACOS).when(skyWalkerCacheServices).getClusterType(TEST_DEST_CLUSTER_ID);
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.CONSUL)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
+        when(syncService.sync(taskDO)).thenReturn(true);
+    }
+
+    @Test
+    public void testContextIsResolvedOnce() {
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(syncManagerService.sync(taskDO));
+        }
+
+        verify(syncService, times(3)).sync(taskDO);
+        verify(skyWalkerCacheServices, times(1)).getClusterType(TEST_SOURCE_CLUSTER_ID);
+        verify(skyWalkerCacheServices, times(1)).getClusterType(TEST_DEST_CLUSTER_ID);
+    }
+
+    @Test
+    public void testContextIsRebuiltWhenClustersChange() {
+        syncManagerService.sync(taskDO);
+        when(clusterMetadataCache.getVersion()).thenReturn(1L);
+        syncManagerService.sync(taskDO);
+        syncManagerService.sync(taskDO);
+
+        verify(skyWalkerCacheServices, times(2)).getClusterType(TEST_SOURCE_CLUSTER_ID);
+    }
+}
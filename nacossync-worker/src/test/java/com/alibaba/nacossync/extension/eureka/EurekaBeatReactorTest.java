@@ -0,0 +1,109 @@
+package com.alibaba.nacossync.extension.eureka;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 23:59
+ * @see EurekaBeatReactor
+ */
+public class EurekaBeatReactorTest {
+
+    /**
+     * ten ticks per renewal interval, the wheel is only turned by the test
+     */
+    private static final int RENEWAL_INTERVAL_IN_SECS = 600;
+
+    private static final long TICK_MS = 60_000L;
+
+    private EurekaBeatReactor eurekaBeatReactor;
+
+    private EurekaHttpClient eurekaHttpClient;
+
+    @Before
+    public void setUp() {
+        eurekaBeatReactor = new EurekaBeatReactor();
+        Whitebox.setInternalState(eurekaBeatReactor, "tickMs", TICK_MS);
+        Whitebox.setInternalState(eurekaBeatReactor, "wheelSize", 8);
+        Whitebox.setInternalState(eurekaBeatReactor, "sendThreads", 2);
+        Whitebox.setInternalState(eurekaBeatReactor, "maxInFlight", 64);
+        eurekaBeatReactor.init();
+        eurekaHttpClient = mock(EurekaHttpClient.class);
+        doReturn(EurekaHttpResponse.status(200)).when(eurekaHttpClient)
+            .sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceInfo.InstanceStatus.class));
+    }
+
+    @After
+    public void tearDown() {
+        eurekaBeatReactor.shutdown();
+    }
+
+    @Test
+    public void testBeatsAreSpreadOverTheRenewalInterval() {
+        List<EurekaBeatReactor.Beat> beats = new ArrayList<>();
+        int firstTickBeats = 0;
+        for (int i = 0; i < 50; i++) {
+            InstanceInfo instanceInfo = buildInstanceInfo("10.0.0." + i + ":demo:8080");
+            beats.add(eurekaBeatReactor.addInstance(eurekaHttpClient, instanceInfo));
+            if (Math.floorMod(instanceInfo.getId().hashCode(), 10) == 0) {
+                firstTickBeats++;
+            }
+        }
+
+        // the beats are taken into the wheel on the first tick, the earliest is due on the next one
+        eurekaBeatReactor.advance();
+        eurekaBeatReactor.advance();
+        verify(eurekaHttpClient, timeout(1000).times(firstTickBeats))
+            .sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceInfo.InstanceStatus.class));
+        for (int tick = 0; tick < 9; tick++) {
+            eurekaBeatReactor.advance();
+        }
+        verify(eurekaHttpClient, timeout(1000).times(50))
+            .sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceInfo.InstanceStatus.class));
+
+        // one renewal interval later every instance beats once more, the cancelled ones excepted
+        beats.subList(0, 10).forEach(eurekaBeatReactor::removeInstance);
+        for (int tick = 0; tick < 10; tick++) {
+            eurekaBeatReactor.advance();
+        }
+        verify(eurekaHttpClient, after(200).times(90))
+            .sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceInfo.InstanceStatus.class));
+    }
+
+    @Test
+    public void testUnknownInstanceIsRegisteredAgain() {
+        InstanceInfo instanceInfo = buildInstanceInfo("10.0.0.1:demo:8080");
+        doReturn(EurekaHttpResponse.status(404)).when(eurekaHttpClient)
+            .sendHeartBeat(anyString(), anyString(), any(InstanceInfo.class), any(InstanceInfo.InstanceStatus.class));
+        eurekaBeatReactor.addInstance(eurekaHttpClient, instanceInfo);
+        for (int tick = 0; tick <= 10; tick++) {
+            eurekaBeatReactor.advance();
+        }
+
+        verify(eurekaHttpClient, timeout(1000)).register(instanceInfo);
+    }
+
+    private InstanceInfo buildInstanceInfo(String instanceId) {
+        return InstanceInfo.Builder.newBuilder().setInstanceId(instanceId).setAppName("demo")
+            .setIPAddr("10.0.0.1").setPort(8080)
+            .setLeaseInfo(LeaseInfo.Builder.newBuilder().setRenewalIntervalInSecs(RENEWAL_INTERVAL_IN_SECS).build())
+            .build();
+    }
+}
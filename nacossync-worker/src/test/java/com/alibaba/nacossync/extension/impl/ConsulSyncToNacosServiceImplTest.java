@@ -1,10 +1,13 @@
 package com.alibaba.nacossync.extension.impl;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.nacos.api.naming.NamingService;
@@ -15,6 +18,8 @@ import com.alibaba.nacossync.constant.SkyWalkerConstants;
 import com.alibaba.nacossync.extension.event.SpecialSyncEventBus;
 import com.alibaba.nacossync.extension.holder.ConsulServerHolder;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
+import com.alibaba.nacossync.pojo.TaskDecoration;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.ecwid.consul.transport.HttpResponse;
 import com.ecwid.consul.v1.ConsulClient;
@@ -22,11 +27,14 @@ import com.ecwid.consul.v1.Response;
 import com.ecwid.consul.v1.health.model.HealthService;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -44,6 +52,8 @@ public class ConsulSyncToNacosServiceImplTest {
     public static final String TEST_DEST_CLUSTER_ID = "test-dest-cluster-id";
     public static final String TEST_TASK_ID = "test-task-id";
     public static final String TEST_INSTANCE_ADDRESS = "127.0.0.1";
+    public static final String TEST_SERVICE_NAME = "test-service";
+    public static final String TEST_GROUP_NAME = "test-group";
     @Mock
     private NacosServerHolder nacosServerHolder;
     @Mock
@@ -58,6 +68,9 @@ public class ConsulSyncToNacosServiceImplTest {
     @Mock
     private SpecialSyncEventBus specialSyncEventBus;
 
+    @Mock
+    private NacosBatchWriter nacosBatchWriter;
+
     @InjectMocks
     @Spy
     private ConsulSyncToNacosServiceImpl consulSyncToNacosService;
@@ -78,6 +91,42 @@ public class ConsulSyncToNacosServiceImplTest {
         Assert.assertTrue(consulSyncToNacosService.delete(taskDO));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInstancesOfANonDefaultGroupAreNotRegisteredAgain() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        taskDO.setServiceName(TEST_SERVICE_NAME);
+        taskDO.setGroupName(TEST_GROUP_NAME);
+        HealthService healthService = buildHealthService(TEST_INSTANCE_ADDRESS, 8080, Maps.newHashMap());
+        HttpResponse rawResponse = new HttpResponse(200, null, null, 1000L, true, 100L);
+        doReturn(new Response<>(Lists.newArrayList(healthService), rawResponse)).when(consulClient)
+            .getHealthServices(anyString(), anyBoolean(), any());
+        doReturn(consulClient).when(consulServerHolder).get(anyString());
+        doReturn(destNamingService).when(nacosServerHolder).get(anyString());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.CONSUL)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
+        Instance destInstance = new Instance();
+        destInstance.setIp(TEST_INSTANCE_ADDRESS);
+        destInstance.setPort(8080);
+        destInstance.setMetadata(Collections.singletonMap(SkyWalkerConstants.SOURCE_CLUSTERID_KEY,
+            TEST_SOURCE_CLUSTER_ID));
+        doReturn(Lists.newArrayList(destInstance)).when(destNamingService)
+            .getAllInstances(eq(TEST_SERVICE_NAME), eq(TEST_GROUP_NAME));
+
+        Assert.assertTrue(consulSyncToNacosService.sync(taskDO));
+        Assert.assertTrue(consulSyncToNacosService.sync(taskDO));
+
+        ArgumentCaptor<Collection> registered = ArgumentCaptor.forClass(Collection.class);
+        verify(nacosBatchWriter, times(2)).registerInstances(eq(destNamingService), eq(TEST_SERVICE_NAME),
+            eq(TEST_GROUP_NAME), registered.capture());
+        // the instance is in the group of the task, the unchanged second round writes nothing
+        Assert.assertEquals(1, registered.getAllValues().get(0).size());
+        Assert.assertTrue(registered.getAllValues().get(1).isEmpty());
+    }
+
     @Test(expected = Exception.class)
     public void testConsulSyncToNacosWithException() throws Exception {
         Assert.assertFalse(consulSyncToNacosService.sync(null));
@@ -104,8 +153,9 @@ public class ConsulSyncToNacosServiceImplTest {
         doReturn(consulClient).when(consulServerHolder).get(anyString());
         doReturn(response).when(consulClient).getHealthServices(anyString(), anyBoolean(), any());
         List<Instance> allInstances = Lists.newArrayList(instance);
-        doReturn(allInstances).when(destNamingService).getAllInstances(anyString());
-        doReturn(ClusterTypeEnum.EUREKA).when(skyWalkerCacheServices).getClusterType(any());
+        doReturn(allInstances).when(destNamingService).getAllInstances(anyString(), anyString());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.EUREKA)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
 
     }
 
@@ -15,6 +15,8 @@ import com.alibaba.nacossync.extension.eureka.EurekaNamingService;
 import com.alibaba.nacossync.extension.event.SpecialSyncEventBus;
 import com.alibaba.nacossync.extension.holder.EurekaServerHolder;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
+import com.alibaba.nacossync.pojo.TaskDecoration;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -53,6 +55,9 @@ public class EurekaSyncToNacosServiceImplTest {
 
     @Mock
     private SpecialSyncEventBus specialSyncEventBus;
+    @Mock
+    private NacosBatchWriter nacosBatchWriter;
+
     @InjectMocks
     @Spy
     private EurekaSyncToNacosServiceImpl eurekaSyncToNacosService;
@@ -98,7 +103,8 @@ public class EurekaSyncToNacosServiceImplTest {
         doReturn(eurekaNamingService).when(eurekaServerHolder).get(anyString());
         doReturn(allInstanceInfo).when(eurekaNamingService).getApplications(any());
         when(application.getInstances()).thenReturn(allInstanceInfo);
-        doReturn(ClusterTypeEnum.EUREKA).when(skyWalkerCacheServices).getClusterType(any());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.EUREKA)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
     }
 
     public void mockDelete(TaskDO taskDO) throws Exception {
@@ -1,16 +1,21 @@
 package com.alibaba.nacossync.extension.impl;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.nacos.api.naming.NamingService;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacossync.constant.SkyWalkerConstants;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer;
 import com.alibaba.nacossync.pojo.model.TaskDO;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
@@ -42,6 +47,12 @@ public class NacosSyncToNacosServiceImplTest {
     @Mock
     private NamingService destNamingService;
 
+    @Mock
+    private NacosBatchWriter nacosBatchWriter;
+
+    @Mock
+    private NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
+
     @InjectMocks
     @Spy
     private NacosSyncToNacosServiceImpl nacosSyncToNacosService;
@@ -62,6 +73,19 @@ public class NacosSyncToNacosServiceImplTest {
         Assert.assertTrue(nacosSyncToNacosService.delete(taskDO));
     }
 
+    @Test
+    public void testReleaseKeepsTheSyncedInstances() throws Exception {
+        TaskDO taskDO = mock(TaskDO.class);
+        when(taskDO.getTaskId()).thenReturn(TEST_TASK_ID);
+        when(taskDO.getSourceClusterId()).thenReturn(TEST_SOURCE_CLUSTER_ID);
+        when(taskDO.getDestClusterId()).thenReturn(TEST_DEST_CLUSTER_ID);
+        doReturn(destNamingService).when(nacosServerHolder).get(TEST_DEST_CLUSTER_ID);
+
+        Assert.assertTrue(nacosSyncToNacosService.release(taskDO));
+        verify(nacosSubscriptionMultiplexer).unsubscribe(taskDO);
+        verify(destNamingService, never()).deregisterInstance(anyString(), anyString(), anyString(), anyInt());
+    }
+
     @Test(expected = Exception.class)
     public void testNacosSyncToNacosWithException() throws Exception {
         Assert.assertFalse(nacosSyncToNacosService.sync(null));
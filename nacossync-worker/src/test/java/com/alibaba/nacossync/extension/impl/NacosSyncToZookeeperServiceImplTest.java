@@ -1,22 +1,47 @@
 package com.alibaba.nacossync.extension.impl;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
 import com.alibaba.nacossync.extension.holder.ZookeeperServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer;
+import com.alibaba.nacossync.extension.nacos.NacosSubscriptionMultiplexer.InstancesListener;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperBatchWriter;
+import com.alibaba.nacossync.pojo.TaskDecoration;
 import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.DubboConstants;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.listen.ListenerContainer;
+import org.apache.curator.framework.recipes.cache.ChildData;
 import org.apache.curator.framework.recipes.cache.PathChildrenCache;
+import org.apache.curator.framework.recipes.cache.PathChildrenCacheEvent;
+import org.apache.curator.framework.recipes.cache.PathChildrenCacheListener;
+import org.apache.zookeeper.CreateMode;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.mockito.internal.util.reflection.Whitebox;
 import org.mockito.runners.MockitoJUnitRunner;
 
 /**
@@ -29,6 +54,7 @@ public class NacosSyncToZookeeperServiceImplTest {
     public static final String TEST_SOURCE_CLUSTER_ID = "test-source-cluster-id";
     public static final String TEST_DEST_CLUSTER_ID = "test-dest-cluster-id";
     public static final String TEST_TASK_ID = "test-task-id";
+    public static final String TEST_SERVICE_NAME = "org.apache.dubbo.demo.DemoService";
     @Mock
     private ZookeeperServerHolder zookeeperServerHolder;
     @Mock
@@ -39,6 +65,14 @@ public class NacosSyncToZookeeperServiceImplTest {
     private PathChildrenCache pathChildrenCache;
     @Mock
     private CuratorFramework client;
+    @Mock
+    private NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
+    @Mock
+    private ZookeeperBatchWriter zookeeperBatchWriter;
+    @Mock
+    private SkyWalkerCacheServices skyWalkerCacheServices;
+    @Mock
+    private ScheduledExecutorService scheduledExecutorService;
 
     @InjectMocks
     @Spy
@@ -67,6 +101,121 @@ public class NacosSyncToZookeeperServiceImplTest {
         Assert.assertFalse(nacosSyncToZookeeperService.delete(null));
     }
 
+    @Test
+    public void testOnlyChangesAgainstTheMirrorAreWritten() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        taskDO.setServiceName(TEST_SERVICE_NAME);
+        doReturn(client).when(zookeeperServerHolder).get(any());
+        doReturn(sourceNamingService).when(nacosServerHolder).get(any());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.NACOS)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
+        doReturn(mock(ListenerContainer.class)).when(pathChildrenCache).getListenable();
+        Map<String, PathChildrenCache> pathChildrenCacheMap = new ConcurrentHashMap<>();
+        pathChildrenCacheMap.put(TEST_TASK_ID, pathChildrenCache);
+        Whitebox.setInternalState(nacosSyncToZookeeperService, "pathChildrenCacheMap", pathChildrenCacheMap);
+        ArgumentCaptor<InstancesListener> listenerCaptor = ArgumentCaptor.forClass(InstancesListener.class);
+        Assert.assertTrue(nacosSyncToZookeeperService.sync(taskDO));
+        verify(nacosSubscriptionMultiplexer).subscribe(eq(taskDO), listenerCaptor.capture());
+
+        Instance synced = buildInstance("10.0.0.1");
+        Instance added = buildInstance("10.0.0.2");
+        String syncedUrl = nacosSyncToZookeeperService.buildSyncInstance(synced, taskDO);
+        String addedUrl = nacosSyncToZookeeperService.buildSyncInstance(added, taskDO);
+        doReturn(new ChildData(syncedUrl, null, null)).when(pathChildrenCache).getCurrentData(syncedUrl);
+        listenerCaptor.getValue().onChange(Arrays.asList(synced, added));
+        verify(zookeeperBatchWriter).create(client, Collections.singletonList(addedUrl), CreateMode.EPHEMERAL);
+
+        // nothing changed, nothing is written
+        doReturn(new ChildData(addedUrl, null, null)).when(pathChildrenCache).getCurrentData(addedUrl);
+        listenerCaptor.getValue().onChange(Arrays.asList(synced, added));
+        verify(zookeeperBatchWriter).create(client, Collections.emptyList(), CreateMode.EPHEMERAL);
+        verify(zookeeperBatchWriter, times(2)).delete(client, Collections.emptyList());
+
+        listenerCaptor.getValue().onChange(Collections.singletonList(synced));
+        verify(zookeeperBatchWriter).delete(client, Collections.singletonList(addedUrl));
+
+        // a node removed again before the mirror saw it is deleted all the same
+        Instance flapping = buildInstance("10.0.0.3");
+        String flappingUrl = nacosSyncToZookeeperService.buildSyncInstance(flapping, taskDO);
+        listenerCaptor.getValue().onChange(Arrays.asList(synced, flapping));
+        verify(zookeeperBatchWriter).create(client, Collections.singletonList(flappingUrl), CreateMode.EPHEMERAL);
+        listenerCaptor.getValue().onChange(Collections.singletonList(synced));
+        verify(zookeeperBatchWriter).delete(client, Collections.singletonList(flappingUrl));
+    }
+
+    @Test
+    public void testDeleteDropsTheMirror() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        doReturn(client).when(zookeeperServerHolder).get(any());
+        Map<String, PathChildrenCache> pathChildrenCacheMap = new ConcurrentHashMap<>();
+        pathChildrenCacheMap.put(TEST_TASK_ID, pathChildrenCache);
+        Whitebox.setInternalState(nacosSyncToZookeeperService, "pathChildrenCacheMap", pathChildrenCacheMap);
+
+        Assert.assertTrue(nacosSyncToZookeeperService.delete(taskDO));
+        verify(pathChildrenCache).close();
+        // the task added again must not find the closed mirror
+        Assert.assertTrue(pathChildrenCacheMap.isEmpty());
+    }
+
+    @Test
+    public void testRemovedNodesAreRecreatedInOneBatch() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        taskDO.setServiceName(TEST_SERVICE_NAME);
+        doReturn(client).when(zookeeperServerHolder).get(any());
+        doReturn(sourceNamingService).when(nacosServerHolder).get(any());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.NACOS)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
+        ListenerContainer<PathChildrenCacheListener> listenable = mock(ListenerContainer.class);
+        doReturn(listenable).when(pathChildrenCache).getListenable();
+        Map<String, PathChildrenCache> pathChildrenCacheMap = new ConcurrentHashMap<>();
+        pathChildrenCacheMap.put(TEST_TASK_ID, pathChildrenCache);
+        Whitebox.setInternalState(nacosSyncToZookeeperService, "pathChildrenCacheMap", pathChildrenCacheMap);
+        ArgumentCaptor<InstancesListener> listenerCaptor = ArgumentCaptor.forClass(InstancesListener.class);
+        Assert.assertTrue(nacosSyncToZookeeperService.sync(taskDO));
+        verify(nacosSubscriptionMultiplexer).subscribe(eq(taskDO), listenerCaptor.capture());
+
+        Instance synced = buildInstance("10.0.0.1");
+        Instance other = buildInstance("10.0.0.2");
+        String syncedUrl = nacosSyncToZookeeperService.buildSyncInstance(synced, taskDO);
+        String otherUrl = nacosSyncToZookeeperService.buildSyncInstance(other, taskDO);
+        listenerCaptor.getValue().onChange(Arrays.asList(synced, other));
+        ArgumentCaptor<PathChildrenCacheListener> zkListenerCaptor =
+            ArgumentCaptor.forClass(PathChildrenCacheListener.class);
+        verify(listenable).addListener(zkListenerCaptor.capture());
+
+        // both nodes go away, a node that was never synced is ignored
+        PathChildrenCacheListener zkListener = zkListenerCaptor.getValue();
+        zkListener.childEvent(client, new PathChildrenCacheEvent(PathChildrenCacheEvent.Type.CHILD_REMOVED,
+            new ChildData(syncedUrl, null, null)));
+        zkListener.childEvent(client, new PathChildrenCacheEvent(PathChildrenCacheEvent.Type.CHILD_REMOVED,
+            new ChildData(otherUrl, null, null)));
+        zkListener.childEvent(client, new PathChildrenCacheEvent(PathChildrenCacheEvent.Type.CHILD_REMOVED,
+            new ChildData(otherUrl + "0", null, null)));
+        ArgumentCaptor<Runnable> repairCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).schedule(repairCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        // the other node is back before the repair runs
+        doReturn(new ChildData(otherUrl, null, null)).when(pathChildrenCache).getCurrentData(otherUrl);
+        repairCaptor.getValue().run();
+        verify(zookeeperBatchWriter).create(client, Collections.singletonList(syncedUrl), CreateMode.EPHEMERAL);
+    }
+
+    private Instance buildInstance(String ip) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(20880);
+        instance.setMetadata(Collections.singletonMap(DubboConstants.INTERFACE_KEY, TEST_SERVICE_NAME));
+        return instance;
+    }
+
     public boolean mockSync(TaskDO taskDO) throws Exception {
         when(taskDO.getTaskId()).thenReturn(TEST_TASK_ID);
         when(taskDO.getSourceClusterId()).thenReturn(TEST_SOURCE_CLUSTER_ID);
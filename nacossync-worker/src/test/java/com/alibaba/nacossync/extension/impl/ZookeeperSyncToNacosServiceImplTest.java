@@ -1,10 +1,12 @@
 package com.alibaba.nacossync.extension.impl;
 
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.alibaba.nacos.api.naming.NamingService;
@@ -14,22 +16,37 @@ import com.alibaba.nacossync.constant.ClusterTypeEnum;
 import com.alibaba.nacossync.constant.SkyWalkerConstants;
 import com.alibaba.nacossync.extension.holder.NacosServerHolder;
 import com.alibaba.nacossync.extension.holder.ZookeeperServerHolder;
+import com.alibaba.nacossync.extension.nacos.NacosBatchWriter;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperEventBatcher;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperProviderLoader;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperProviderLoader.BatchSink;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperProviderLoader.ProvidersParser;
+import com.alibaba.nacossync.extension.zookeeper.ZookeeperTreeCacheMultiplexer;
+import com.alibaba.nacossync.pojo.TaskDecoration;
 import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.DubboConstants;
+import com.alibaba.nacossync.util.StringUtils;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.curator.framework.CuratorFramework;
-import org.apache.curator.framework.listen.ListenerContainer;
-import org.apache.curator.framework.recipes.cache.ChildData;
-import org.apache.curator.framework.recipes.cache.TreeCache;
-import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.apache.curator.framework.api.ExistsBuilder;
+import org.apache.curator.framework.api.GetChildrenBuilder;
+import org.apache.zookeeper.data.Stat;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
+import org.mockito.internal.util.reflection.Whitebox;
 import org.mockito.runners.MockitoJUnitRunner;
 
 /**
@@ -40,11 +57,11 @@ import org.mockito.runners.MockitoJUnitRunner;
 @RunWith(MockitoJUnitRunner.class)
 public class ZookeeperSyncToNacosServiceImplTest {
 
-    private static final String TEST_PATH =
-        "/dubbo/org.apache.dubbo.demo.DemoService/providers/hessian%3A%2F%2F172.16.0.10%3A20880%2Forg.apache.dubbo.demo.DemoService%3Fanyhost%3Dtrue%26application%3Ddemo-provider%26dubbo%3D2.0.2%26generic%3Dfalse%26group%3DtestGroup%26interface%3Dorg.apache.dubbo.demo.DemoService%26methods%3DsayHello%26pid%3D5956%26revision%3D1.0.0%26side%3Dprovider%26timestamp%3D1547285978821%26version%3D1.0.0%26weight%3D1";
     public static final String TEST_SOURCE_CLUSTER_ID = "test-source-cluster-id";
     public static final String TEST_DEST_CLUSTER_ID = "test-dest-cluster-id";
     public static final String TEST_TASK_ID = "test-task-id";
+    public static final String TEST_SERVICE_NAME = "org.apache.dubbo.demo.DemoService";
+    public static final String TEST_NACOS_SERVICE_NAME = "providers:org.apache.dubbo.demo.DemoService::";
 
     @Mock
     private ZookeeperServerHolder zookeeperServerHolder;
@@ -55,7 +72,14 @@ public class ZookeeperSyncToNacosServiceImplTest {
     @Mock
     private NamingService destNamingService;
     @Mock
-    private TreeCache treeCache;
+    private NacosBatchWriter nacosBatchWriter;
+    @Mock
+    private ZookeeperTreeCacheMultiplexer zookeeperTreeCacheMultiplexer;
+    @Mock
+    private ZookeeperProviderLoader zookeeperProviderLoader;
+    @Mock
+    private ZookeeperEventBatcher zookeeperEventBatcher;
+
     @InjectMocks
     @Spy
     private ZookeeperSyncToNacosServiceImpl zookeeperSyncToNacosService;
@@ -87,24 +111,104 @@ public class ZookeeperSyncToNacosServiceImplTest {
         Assert.assertFalse(zookeeperSyncToNacosService.delete(null));
     }
 
+    @Test
+    public void testDestinationIsReadAfterProvidersWereRemoved() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        taskDO.setServiceName(TEST_SERVICE_NAME);
+        doReturn(destNamingService).when(nacosServerHolder).get(any());
+        Instance instance = new Instance();
+        instance.setIp("10.0.0.1");
+        instance.setPort(20880);
+        instance.setServiceName(TEST_NACOS_SERVICE_NAME);
+        instance.setMetadata(Collections.singletonMap(SkyWalkerConstants.SOURCE_CLUSTERID_KEY,
+            TEST_SOURCE_CLUSTER_ID));
+        zookeeperSyncToNacosService.repairAddAll(taskDO, Collections.singletonList(instance));
+        // a removed provider clears the service name cache
+        Whitebox.setInternalState(zookeeperSyncToNacosService, "nacosServiceNameMap", new ConcurrentHashMap<>());
+        doReturn(Lists.newArrayList(instance)).when(destNamingService)
+            .getAllInstances(eq(TEST_NACOS_SERVICE_NAME), anyString(), anyListOf(String.class), eq(false));
+
+        Map<String, Instance> destInstances = zookeeperSyncToNacosService.readDestination(taskDO);
+        Assert.assertEquals(1, destInstances.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMalformedProviderIsSkippedOnTheInitialLoad() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        taskDO.setServiceName(DubboConstants.ALL_SERVICE_NAME_PATTERN);
+        CuratorFramework curatorFramework = mock(CuratorFramework.class);
+        GetChildrenBuilder getChildrenBuilder = mock(GetChildrenBuilder.class);
+        doReturn(Collections.singletonList(TEST_SERVICE_NAME)).when(getChildrenBuilder).forPath(anyString());
+        doReturn(getChildrenBuilder).when(curatorFramework).getChildren();
+        doReturn(curatorFramework).when(zookeeperServerHolder).get(any());
+        doReturn(destNamingService).when(nacosServerHolder).get(any());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.ZK)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
+        Assert.assertTrue(zookeeperSyncToNacosService.sync(taskDO));
+        ArgumentCaptor<ProvidersParser> parserCaptor = ArgumentCaptor.forClass(ProvidersParser.class);
+        verify(zookeeperProviderLoader).load(eq(TEST_TASK_ID), eq(curatorFramework), any(List.class),
+            parserCaptor.capture(), any(BatchSink.class));
+
+        Collection<Instance> instances = parserCaptor.getValue().parse(TEST_SERVICE_NAME, providersWithMalformed());
+        Assert.assertEquals(1, instances.size());
+    }
+
+    @Test
+    public void testMalformedProviderIsSkippedOnReconciliation() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setDestClusterId(TEST_DEST_CLUSTER_ID);
+        taskDO.setServiceName(TEST_SERVICE_NAME);
+        CuratorFramework curatorFramework = mock(CuratorFramework.class);
+        ExistsBuilder existsBuilder = mock(ExistsBuilder.class);
+        GetChildrenBuilder getChildrenBuilder = mock(GetChildrenBuilder.class);
+        doReturn(new Stat()).when(existsBuilder).forPath(anyString());
+        doReturn(providersWithMalformed()).when(getChildrenBuilder).forPath(anyString());
+        doReturn(existsBuilder).when(curatorFramework).checkExists();
+        doReturn(getChildrenBuilder).when(curatorFramework).getChildren();
+        doReturn(curatorFramework).when(zookeeperServerHolder).get(any());
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.ZK)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
+
+        Map<String, Instance> sourceInstances = zookeeperSyncToNacosService.readSource(taskDO);
+        Assert.assertEquals(1, sourceInstances.size());
+    }
+
+    /**
+     * @return one valid provider between one without address and one with a broken escape
+     */
+    private List<String> providersWithMalformed() {
+        Map<String, String> metaData = new HashMap<>();
+        metaData.put(DubboConstants.PROTOCOL_KEY, "dubbo");
+        metaData.put(DubboConstants.INTERFACE_KEY, TEST_SERVICE_NAME);
+        String providerPath = StringUtils.convertDubboFullPathForZk(metaData,
+            StringUtils.convertDubboProvidersPath(TEST_SERVICE_NAME), "10.0.0.1", 20880);
+        String provider = providerPath.substring(providerPath.lastIndexOf('/') + 1);
+        String withoutAddress = provider.replace("10.0.0.1%3A20880", "");
+        return Arrays.asList(withoutAddress, "dubbo%3A%2F%2F%ZZ", provider);
+    }
+
     public boolean mockSync(TaskDO taskDO) {
-        ChildData childData = new ChildData(TEST_PATH, null, null);
-        ListenerContainer<TreeCacheListener> listeners = mock(ListenerContainer.class);
         when(taskDO.getTaskId()).thenReturn(TEST_TASK_ID);
         when(taskDO.getSourceClusterId()).thenReturn(TEST_SOURCE_CLUSTER_ID);
         when(taskDO.getDestClusterId()).thenReturn(TEST_DEST_CLUSTER_ID);
         CuratorFramework curatorFramework = mock(CuratorFramework.class);
         doReturn(curatorFramework).when(zookeeperServerHolder).get(any() );
         doReturn(destNamingService).when(nacosServerHolder).get(any());
-        doReturn(treeCache).when(zookeeperSyncToNacosService).getTreeCache(any());
-        when(treeCache.getCurrentData(any())).thenReturn(childData);
-        doReturn(ClusterTypeEnum.ZK).when(skyWalkerCacheServices).getClusterType(any());
-        when(treeCache.getListenable()).thenReturn(listeners);
+        doReturn(TaskDecoration.of(taskDO, ClusterTypeEnum.ZK)).when(skyWalkerCacheServices)
+            .getTaskDecoration(any());
         return zookeeperSyncToNacosService.sync(taskDO);
     }
 
     public boolean mockDelete(TaskDO taskDO) throws Exception {
-        doNothing().when(treeCache).close();
         Instance instance = mock(Instance.class);
         Map<String, String> metadata = Maps.newHashMap();
         metadata.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, TEST_SOURCE_CLUSTER_ID);
@@ -0,0 +1,72 @@
+package com.alibaba.nacossync.extension.nacos;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.internal.util.reflection.Whitebox;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 17:50
+ * @see NacosBatchWriter
+ */
+public class NacosBatchWriterTest {
+
+    private NacosBatchWriter nacosBatchWriter;
+
+    @Before
+    public void setUp() {
+        nacosBatchWriter = new NacosBatchWriter();
+        Whitebox.setInternalState(nacosBatchWriter, "chunkSize", 2);
+        Whitebox.setInternalState(nacosBatchWriter, "parallelism", 2);
+        nacosBatchWriter.init();
+    }
+
+    @After
+    public void tearDown() {
+        nacosBatchWriter.shutdown();
+    }
+
+    @Test
+    public void testEveryItemIsWrittenDespiteFailure() {
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5);
+        Set<Integer> written = ConcurrentHashMap.newKeySet();
+        try {
+            nacosBatchWriter.execute(items, item -> {
+                if (item == 2) {
+                    throw new NacosException(NacosException.SERVER_ERROR, "test failure");
+                }
+                written.add(item);
+            });
+            Assert.fail();
+        } catch (NacosException e) {
+            Assert.assertEquals(NacosException.SERVER_ERROR, e.getErrCode());
+        }
+        Assert.assertEquals(4, written.size());
+    }
+
+    @Test
+    public void testRuntimeFailureDoesNotAbortTheChunk() {
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5);
+        Set<Integer> written = ConcurrentHashMap.newKeySet();
+        try {
+            nacosBatchWriter.execute(items, item -> {
+                if (item == 1) {
+                    throw new IllegalArgumentException("malformed instance");
+                }
+                written.add(item);
+            });
+            Assert.fail();
+        } catch (NacosException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        Assert.assertEquals(4, written.size());
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.alibaba.nacossync.extension.nacos;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.alibaba.nacos.api.common.Constants;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.EventListener;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.extension.holder.NacosServerHolder;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 18:20
+ * @see NacosSubscriptionMultiplexer
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class NacosSubscriptionMultiplexerTest {
+
+    private static final String TEST_SOURCE_CLUSTER_ID = "test-source-cluster-id";
+
+    private static final String TEST_SERVICE_NAME = "order-service";
+
+    @Mock
+    private NacosServerHolder nacosServerHolder;
+
+    @Mock
+    private NamingService sourceNamingService;
+
+    private NacosSubscriptionMultiplexer nacosSubscriptionMultiplexer;
+
+    @Before
+    public void setUp() {
+        doReturn(sourceNamingService).when(nacosServerHolder).get(anyString());
+        nacosSubscriptionMultiplexer = new NacosSubscriptionMultiplexer(nacosServerHolder);
+        Whitebox.setInternalState(nacosSubscriptionMultiplexer, "notifyThreads", 2);
+        nacosSubscriptionMultiplexer.init();
+    }
+
+    @After
+    public void tearDown() {
+        nacosSubscriptionMultiplexer.shutdown();
+    }
+
+    @Test
+    public void testTasksShareOneSubscription() throws Exception {
+        BlockingQueue<List<Instance>> firstReceived = new LinkedBlockingQueue<>();
+        BlockingQueue<List<Instance>> secondReceived = new LinkedBlockingQueue<>();
+        TaskDO firstTask = buildTask("task-1");
+        TaskDO secondTask = buildTask("task-2");
+
+        nacosSubscriptionMultiplexer.subscribe(firstTask, firstReceived::add);
+        ArgumentCaptor<EventListener> listenerCaptor = ArgumentCaptor.forClass(EventListener.class);
+        verify(sourceNamingService).subscribe(eq(TEST_SERVICE_NAME), eq(Constants.DEFAULT_GROUP),
+            listenerCaptor.capture());
+        List<Instance> instances = Collections.singletonList(new Instance());
+        listenerCaptor.getValue()
+            .onEvent(new NamingEvent(TEST_SERVICE_NAME, Constants.DEFAULT_GROUP, null, instances));
+
+        // the task joining later is replayed the latest instance list
+        nacosSubscriptionMultiplexer.subscribe(secondTask, secondReceived::add);
+        verify(sourceNamingService, times(1)).subscribe(anyString(), anyString(), any(EventListener.class));
+        Assert.assertEquals(1, nacosSubscriptionMultiplexer.getSubscriptionCount());
+        List<Instance> firstInstances = firstReceived.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(firstInstances);
+        Assert.assertSame(firstInstances, secondReceived.poll(5, TimeUnit.SECONDS));
+
+        listenerCaptor.getValue()
+            .onEvent(new NamingEvent(TEST_SERVICE_NAME, Constants.DEFAULT_GROUP, null, instances));
+        Assert.assertNotNull(firstReceived.poll(5, TimeUnit.SECONDS));
+        Assert.assertNotNull(secondReceived.poll(5, TimeUnit.SECONDS));
+
+        nacosSubscriptionMultiplexer.unsubscribe(firstTask);
+        verify(sourceNamingService, never()).unsubscribe(anyString(), anyString(), any(EventListener.class));
+        nacosSubscriptionMultiplexer.unsubscribe(secondTask);
+        verify(sourceNamingService).unsubscribe(TEST_SERVICE_NAME, Constants.DEFAULT_GROUP,
+            listenerCaptor.getValue());
+        Assert.assertEquals(0, nacosSubscriptionMultiplexer.getSubscriptionCount());
+    }
+
+    @Test
+    public void testSlowTaskDoesNotHoldUpTheOthers() throws Exception {
+        TaskDO slowTask = buildTask("task-1");
+        TaskDO otherTask = buildTask("task-2");
+        // the tasks are on different notify lanes
+        Assert.assertNotEquals(Math.floorMod(slowTask.getTaskId().hashCode(), 2),
+            Math.floorMod(otherTask.getTaskId().hashCode(), 2));
+        CountDownLatch slowTaskEntered = new CountDownLatch(1);
+        CountDownLatch slowTaskReleased = new CountDownLatch(1);
+        BlockingQueue<List<Instance>> slowReceived = new LinkedBlockingQueue<>();
+        BlockingQueue<List<Instance>> otherReceived = new LinkedBlockingQueue<>();
+        nacosSubscriptionMultiplexer.subscribe(slowTask, instances -> {
+            slowReceived.add(instances);
+            slowTaskEntered.countDown();
+            slowTaskReleased.await();
+        });
+        nacosSubscriptionMultiplexer.subscribe(otherTask, otherReceived::add);
+        ArgumentCaptor<EventListener> listenerCaptor = ArgumentCaptor.forClass(EventListener.class);
+        verify(sourceNamingService).subscribe(eq(TEST_SERVICE_NAME), eq(Constants.DEFAULT_GROUP),
+            listenerCaptor.capture());
+
+        List<Instance> first = Collections.singletonList(new Instance());
+        List<Instance> second = Collections.singletonList(new Instance());
+        List<Instance> third = Collections.singletonList(new Instance());
+        listenerCaptor.getValue().onEvent(new NamingEvent(TEST_SERVICE_NAME, Constants.DEFAULT_GROUP, null, first));
+        Assert.assertTrue(slowTaskEntered.await(5, TimeUnit.SECONDS));
+        listenerCaptor.getValue().onEvent(new NamingEvent(TEST_SERVICE_NAME, Constants.DEFAULT_GROUP, null, second));
+        listenerCaptor.getValue().onEvent(new NamingEvent(TEST_SERVICE_NAME, Constants.DEFAULT_GROUP, null, third));
+
+        // the Nacos notifier thread returned and the other task got the latest push while the slow task still runs
+        List<Instance> otherInstances;
+        do {
+            otherInstances = otherReceived.poll(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(otherInstances);
+        } while (otherInstances.get(0) != third.get(0));
+
+        // the pushes queued behind the slow task are replaced by the latest one
+        slowTaskReleased.countDown();
+        Assert.assertSame(first.get(0), slowReceived.poll(5, TimeUnit.SECONDS).get(0));
+        Assert.assertSame(third.get(0), slowReceived.poll(5, TimeUnit.SECONDS).get(0));
+        Assert.assertNull(slowReceived.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    private TaskDO buildTask(String taskId) {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(taskId);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setServiceName(TEST_SERVICE_NAME);
+        return taskDO;
+    }
+}
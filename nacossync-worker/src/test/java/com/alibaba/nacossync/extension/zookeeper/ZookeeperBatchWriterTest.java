@@ -0,0 +1,141 @@
+package com.alibaba.nacossync.extension.zookeeper;
+
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.ACLBackgroundPathAndBytesable;
+import org.apache.curator.framework.api.ACLPathAndBytesable;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CreateBuilder;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.ErrorListenerMultiTransactionMain;
+import org.apache.curator.framework.api.ExistsBuilder;
+import org.apache.curator.framework.api.ProtectACLCreateModeStatPathAndBytesable;
+import org.apache.curator.framework.api.transaction.CuratorMultiTransaction;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.api.transaction.TransactionCreateBuilder;
+import org.apache.curator.framework.api.transaction.TransactionDeleteBuilder;
+import org.apache.curator.framework.api.transaction.TransactionOp;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockSettings;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.stubbing.Answer;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 23:55
+ * @see ZookeeperBatchWriter
+ */
+public class ZookeeperBatchWriterTest {
+
+    private static final String PROVIDERS_PATH = "/dubbo/org.apache.dubbo.demo.DemoService/providers";
+
+    private CuratorFramework client;
+
+    private ZookeeperBatchWriter zookeeperBatchWriter;
+
+    /**
+     * the size of every transaction sent, in order
+     */
+    private final List<Integer> transactions = new ArrayList<>();
+
+    /**
+     * the paths created one by one
+     */
+    private final List<String> createdPaths = new ArrayList<>();
+
+    /**
+     * the index of the transaction answering a conflict
+     */
+    private int conflictingTransaction = -1;
+
+    @Before
+    public void setUp() throws Exception {
+        zookeeperBatchWriter = new ZookeeperBatchWriter();
+        Whitebox.setInternalState(zookeeperBatchWriter, "transactionSize", 100);
+        Whitebox.setInternalState(zookeeperBatchWriter, "maxInFlight", 2);
+        Whitebox.setInternalState(zookeeperBatchWriter, "timeoutMs", 1000L);
+        client = mock(CuratorFramework.class);
+        doReturn(chain(TransactionOp.class, path -> mock(CuratorOp.class), TransactionCreateBuilder.class,
+            ACLPathAndBytesable.class, TransactionDeleteBuilder.class)).when(client).transactionOp();
+        doReturn(chain(CreateBuilder.class, path -> {
+            createdPaths.add(path);
+            return path;
+        }, ProtectACLCreateModeStatPathAndBytesable.class, ACLBackgroundPathAndBytesable.class)).when(client).create();
+        doReturn(chain(ExistsBuilder.class, path -> new Stat())).when(client).checkExists();
+        // inBackground is declared by a generic super interface and cannot be stubbed, the default answer serves it
+        CuratorMultiTransaction transaction = mock(CuratorMultiTransaction.class, (Answer<Object>) invocation -> {
+            BackgroundCallback callback = (BackgroundCallback) invocation.getArguments()[0];
+            Object context = invocation.getArguments()[1];
+            ErrorListenerMultiTransactionMain main = mock(ErrorListenerMultiTransactionMain.class);
+            when(main.forOperations(anyListOf(CuratorOp.class))).thenAnswer(forOperations -> {
+                List<?> operations = (List<?>) forOperations.getArguments()[0];
+                KeeperException.Code code = transactions.size() == conflictingTransaction
+                    ? KeeperException.Code.NODEEXISTS : KeeperException.Code.OK;
+                transactions.add(operations.size());
+                CuratorEvent event = mock(CuratorEvent.class);
+                doReturn(context).when(event).getContext();
+                doReturn(code.intValue()).when(event).getResultCode();
+                callback.processResult(client, event);
+                return null;
+            });
+            return main;
+        });
+        doReturn(transaction).when(client).transaction();
+    }
+
+    @Test
+    public void testPathsAreWrittenInTransactions() throws Exception {
+        zookeeperBatchWriter.create(client, buildPaths(250), CreateMode.EPHEMERAL);
+
+        Assert.assertEquals(3, transactions.size());
+        Assert.assertEquals(Integer.valueOf(50), transactions.get(2));
+        Assert.assertTrue(createdPaths.isEmpty());
+    }
+
+    @Test
+    public void testConflictingTransactionIsWrittenPathByPath() throws Exception {
+        conflictingTransaction = 1;
+        zookeeperBatchWriter.create(client, buildPaths(250), CreateMode.EPHEMERAL);
+
+        Assert.assertEquals(3, transactions.size());
+        Assert.assertEquals(buildPaths(250).subList(100, 200), createdPaths);
+    }
+
+    /**
+     * a fluent Curator builder, every call returns the builder itself until forPath
+     */
+    private static Object chain(Class<?> type, Function<String, Object> forPath, Class<?>... builders) {
+        MockSettings settings = withSettings().defaultAnswer(invocation -> {
+            if ("forPath".equals(invocation.getMethod().getName())) {
+                return forPath.apply((String) invocation.getArguments()[0]);
+            }
+            if (invocation.getMethod().getReturnType().isInstance(invocation.getMock())) {
+                return invocation.getMock();
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        });
+        return mock(type, builders.length == 0 ? settings : settings.extraInterfaces(builders));
+    }
+
+    private List<String> buildPaths(int count) {
+        List<String> paths = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            paths.add(PROVIDERS_PATH + "/dubbo%3A%2F%2F10.0.0." + i + "%3A20880");
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,123 @@
+package com.alibaba.nacossync.extension.zookeeper;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 23:40
+ * @see ZookeeperEventBatcher
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZookeeperEventBatcherTest {
+
+    private static final String TEST_TASK_ID = "test-task-id";
+
+    private static final String TEST_SERVICE_NAME = "org.apache.dubbo.demo.DemoService";
+
+    @Mock
+    private MetricsManager metricsManager;
+
+    @InjectMocks
+    private ZookeeperEventBatcher zookeeperEventBatcher;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(zookeeperEventBatcher, "windowMs", 200L);
+        Whitebox.setInternalState(zookeeperEventBatcher, "flushThreads", 1);
+        zookeeperEventBatcher.init();
+    }
+
+    @After
+    public void tearDown() {
+        zookeeperEventBatcher.shutdown();
+    }
+
+    @Test
+    public void testEventsOfOneWindowAreCollapsed() throws Exception {
+        List<Instance> registered = new ArrayList<>();
+        List<Instance> deregistered = new ArrayList<>();
+        CountDownLatch applied = new CountDownLatch(1);
+        ZookeeperEventBatcher.BatchApplier applier = (registers, deregisters) -> {
+            registered.addAll(registers);
+            deregistered.addAll(deregisters);
+            applied.countDown();
+        };
+
+        // a restarting provider, a removed one and a flapping one
+        zookeeperEventBatcher.register(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.1"), applier);
+        zookeeperEventBatcher.deregister(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.1"), applier);
+        zookeeperEventBatcher.register(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.1"), applier);
+        zookeeperEventBatcher.deregister(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.2"), applier);
+        zookeeperEventBatcher.register(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.3"), applier);
+        zookeeperEventBatcher.deregister(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.3"), applier);
+
+        Assert.assertTrue(applied.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, registered.size());
+        Assert.assertEquals("10.0.0.1", registered.get(0).getIp());
+        Assert.assertEquals(2, deregistered.size());
+    }
+
+    @Test
+    public void testDiscardDropsThePendingChanges() throws Exception {
+        CountDownLatch applied = new CountDownLatch(1);
+        zookeeperEventBatcher.register(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.1"),
+            (registers, deregisters) -> applied.countDown());
+        zookeeperEventBatcher.discard(TEST_TASK_ID);
+
+        Assert.assertFalse(applied.await(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testWindowsOfOneServiceAreAppliedInOrder() throws Exception {
+        // several lanes, a later window must still wait for the earlier one of the same service
+        zookeeperEventBatcher.shutdown();
+        Whitebox.setInternalState(zookeeperEventBatcher, "flushThreads", 4);
+        zookeeperEventBatcher.init();
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstWindowApplying = new CountDownLatch(1);
+        CountDownLatch releaseFirstWindow = new CountDownLatch(1);
+        CountDownLatch secondWindowApplied = new CountDownLatch(1);
+        ZookeeperEventBatcher.BatchApplier applier = (registers, deregisters) -> {
+            if (!registers.isEmpty()) {
+                firstWindowApplying.countDown();
+                releaseFirstWindow.await(5, TimeUnit.SECONDS);
+                applied.add("register");
+            } else {
+                applied.add("deregister");
+                secondWindowApplied.countDown();
+            }
+        };
+
+        zookeeperEventBatcher.register(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.1"), applier);
+        Assert.assertTrue(firstWindowApplying.await(5, TimeUnit.SECONDS));
+        zookeeperEventBatcher.deregister(TEST_TASK_ID, TEST_SERVICE_NAME, buildInstance("10.0.0.1"), applier);
+
+        Assert.assertFalse(secondWindowApplied.await(500, TimeUnit.MILLISECONDS));
+        releaseFirstWindow.countDown();
+        Assert.assertTrue(secondWindowApplied.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(Arrays.asList("register", "deregister"), applied);
+    }
+
+    private Instance buildInstance(String ip) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(20880);
+        return instance;
+    }
+}
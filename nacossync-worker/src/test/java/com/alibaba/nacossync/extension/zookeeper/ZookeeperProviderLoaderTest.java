@@ -0,0 +1,111 @@
+package com.alibaba.nacossync.extension.zookeeper;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.util.DubboConstants;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.ErrorListenerPathable;
+import org.apache.curator.framework.api.GetChildrenBuilder;
+import org.apache.zookeeper.KeeperException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 23:00
+ * @see ZookeeperProviderLoader
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZookeeperProviderLoaderTest {
+
+    @Mock
+    private MetricsManager metricsManager;
+
+    @Mock
+    private CuratorFramework zk;
+
+    @InjectMocks
+    private ZookeeperProviderLoader zookeeperProviderLoader;
+
+    /**
+     * providers path -> children, a missing path answers NONODE
+     */
+    private final Map<String, List<String>> tree = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(zookeeperProviderLoader, "maxInFlight", 2);
+        Whitebox.setInternalState(zookeeperProviderLoader, "batchSize", 3);
+        Whitebox.setInternalState(zookeeperProviderLoader, "readTimeoutMs", 1000L);
+        Whitebox.setInternalState(zookeeperProviderLoader, "progressIntervalMs", 0L);
+        // inBackground is declared by a generic super interface and cannot be stubbed, the default answer serves it
+        GetChildrenBuilder getChildrenBuilder = mock(GetChildrenBuilder.class, (Answer<Object>) invocation -> {
+            BackgroundCallback callback = (BackgroundCallback) invocation.getArguments()[0];
+            Object context = invocation.getArguments()[1];
+            ErrorListenerPathable<?> pathable = mock(ErrorListenerPathable.class);
+            when(pathable.forPath(anyString())).thenAnswer(forPath -> {
+                String path = (String) forPath.getArguments()[0];
+                callback.processResult(zk, answer(path, context));
+                return null;
+            });
+            return pathable;
+        });
+        doReturn(getChildrenBuilder).when(zk).getChildren();
+    }
+
+    private CuratorEvent answer(String path, Object context) {
+        CuratorEvent event = mock(CuratorEvent.class);
+        List<String> children = tree.get(path);
+        doReturn(path).when(event).getPath();
+        doReturn(context).when(event).getContext();
+        doReturn(children).when(event).getChildren();
+        doReturn((null == children ? KeeperException.Code.NONODE : KeeperException.Code.OK).intValue()).when(event)
+            .getResultCode();
+        return event;
+    }
+
+    private void addService(String serviceName, String... providers) {
+        tree.put(String.format(DubboConstants.DUBBO_PATH_FORMAT, serviceName), Arrays.asList(providers));
+    }
+
+    @Test
+    public void testProvidersAreWrittenInBatches() throws Exception {
+        addService("a", "a1", "a2");
+        addService("b", "b1");
+        addService("c", "c1", "c2");
+        List<List<String>> batches = new ArrayList<>();
+
+        int written = zookeeperProviderLoader.load("test-task-id", zk, Arrays.asList("a", "b", "missing", "c"),
+            (serviceName, providers) -> providers, batch -> batches.add(new ArrayList<>(batch)));
+
+        Assert.assertEquals(5, written);
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a1", "a2", "b1"), Arrays.asList("c1", "c2")), batches);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailedWriteStopsTheLoad() throws Exception {
+        addService("a", "a1", "a2", "a3");
+        zookeeperProviderLoader.load("test-task-id", zk, Arrays.asList("a", "b"), (serviceName, providers) -> providers,
+            batch -> {
+                throw new IllegalStateException("write failed");
+            });
+    }
+}
@@ -0,0 +1,161 @@
+package com.alibaba.nacossync.extension.zookeeper;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.alibaba.nacossync.extension.holder.ZookeeperServerHolder;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.util.DubboConstants;
+import com.alibaba.nacossync.util.StringUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.listen.ListenerContainer;
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.TreeCache;
+import org.apache.curator.framework.recipes.cache.TreeCacheEvent;
+import org.apache.curator.framework.recipes.cache.TreeCacheListener;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 21:50
+ * @see ZookeeperTreeCacheMultiplexer
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ZookeeperTreeCacheMultiplexerTest {
+
+    private static final String TEST_SOURCE_CLUSTER_ID = "test-source-cluster-id";
+
+    private static final String DEMO_SERVICE = "org.apache.dubbo.demo.DemoService";
+
+    private static final String OTHER_SERVICE = "org.apache.dubbo.demo.OtherService";
+
+    private static final String TEST_PATH =
+        "/dubbo/org.apache.dubbo.demo.DemoService/providers/dubbo%3A%2F%2F172.16.0.10%3A20880%2Forg.apache.dubbo.demo.DemoService%3Fanyhost%3Dtrue%26application%3Ddemo-provider%26interface%3Dorg.apache.dubbo.demo.DemoService%26version%3D1.0.0";
+
+    private static final String OTHER_PATH =
+        "/dubbo/org.apache.dubbo.demo.OtherService/providers/dubbo%3A%2F%2F172.16.0.11%3A20880%2Forg.apache.dubbo.demo.OtherService%3Finterface%3Dorg.apache.dubbo.demo.OtherService";
+
+    @Mock
+    private ZookeeperServerHolder zookeeperServerHolder;
+
+    @Mock
+    private TreeCache demoTreeCache;
+
+    @Mock
+    private TreeCache otherTreeCache;
+
+    @Mock
+    private TreeCache rootTreeCache;
+
+    private ZookeeperTreeCacheMultiplexer zookeeperTreeCacheMultiplexer;
+
+    @Before
+    public void setUp() {
+        doReturn(mock(CuratorFramework.class)).when(zookeeperServerHolder).get(anyString());
+        zookeeperTreeCacheMultiplexer = spy(new ZookeeperTreeCacheMultiplexer(zookeeperServerHolder));
+        mockTreeCache(demoTreeCache, StringUtils.convertDubboProvidersPath(DEMO_SERVICE));
+        mockTreeCache(otherTreeCache, StringUtils.convertDubboProvidersPath(OTHER_SERVICE));
+        mockTreeCache(rootTreeCache, DubboConstants.DUBBO_ROOT_PATH);
+    }
+
+    private void mockTreeCache(TreeCache treeCache, String path) {
+        doReturn(mock(ListenerContainer.class)).when(treeCache).getListenable();
+        doReturn(treeCache).when(zookeeperTreeCacheMultiplexer).newTreeCache(any(CuratorFramework.class), eq(path));
+    }
+
+    @Test
+    public void testEventsAreRoutedByService() throws Exception {
+        List<Map<String, String>> demoReceived = new ArrayList<>();
+        List<Map<String, String>> otherReceived = new ArrayList<>();
+        List<Map<String, String>> allReceived = new ArrayList<>();
+        TaskDO demoTask = buildTask("task-1", DEMO_SERVICE);
+        TaskDO otherTask = buildTask("task-2", OTHER_SERVICE);
+        TaskDO allTask = buildTask("task-3", DubboConstants.ALL_SERVICE_NAME_PATTERN);
+
+        zookeeperTreeCacheMultiplexer.subscribe(demoTask, (type, path, providerUrl) ->
+            demoReceived.add(providerUrl.getParameters()));
+        zookeeperTreeCacheMultiplexer.subscribe(otherTask, (type, path, providerUrl) ->
+            otherReceived.add(providerUrl.getParameters()));
+        zookeeperTreeCacheMultiplexer.subscribe(allTask, (type, path, providerUrl) ->
+            allReceived.add(providerUrl.getParameters()));
+        Assert.assertEquals(3, zookeeperTreeCacheMultiplexer.getTreeCacheCount());
+
+        TreeCacheListener demoListener = captureListener(demoTreeCache);
+        TreeCacheListener allListener = captureListener(rootTreeCache);
+        demoListener.childEvent(null,
+            new TreeCacheEvent(TreeCacheEvent.Type.NODE_ADDED, new ChildData(TEST_PATH, null, null)));
+        demoListener.childEvent(null, new TreeCacheEvent(TreeCacheEvent.Type.INITIALIZED, null));
+        allListener.childEvent(null,
+            new TreeCacheEvent(TreeCacheEvent.Type.NODE_ADDED, new ChildData(OTHER_PATH, null, null)));
+
+        Assert.assertEquals(1, demoReceived.size());
+        Assert.assertEquals(0, otherReceived.size());
+        Assert.assertEquals(1, allReceived.size());
+        Assert.assertEquals("dubbo", demoReceived.get(0).get(DubboConstants.PROTOCOL_KEY));
+        Assert.assertEquals("1.0.0", demoReceived.get(0).get(DubboConstants.VERSION_KEY));
+
+        zookeeperTreeCacheMultiplexer.unsubscribe(otherTask);
+        verify(otherTreeCache).close();
+        zookeeperTreeCacheMultiplexer.unsubscribe(allTask);
+        verify(rootTreeCache).close();
+        verify(demoTreeCache, never()).close();
+        Assert.assertEquals(1, zookeeperTreeCacheMultiplexer.getTreeCacheCount());
+    }
+
+    @Test
+    public void testTasksOfOneServiceShareTheProvidersCache() throws Exception {
+        List<Map<String, String>> firstReceived = new ArrayList<>();
+        List<Map<String, String>> secondReceived = new ArrayList<>();
+        TaskDO firstTask = buildTask("task-1", DEMO_SERVICE);
+        TaskDO secondTask = buildTask("task-2", DEMO_SERVICE);
+
+        zookeeperTreeCacheMultiplexer.subscribe(firstTask, (type, path, providerUrl) ->
+            firstReceived.add(providerUrl.getParameters()));
+        zookeeperTreeCacheMultiplexer.subscribe(secondTask, (type, path, providerUrl) ->
+            secondReceived.add(providerUrl.getParameters()));
+        verify(demoTreeCache, times(1)).start();
+        verify(zookeeperTreeCacheMultiplexer, never()).newTreeCache(any(CuratorFramework.class),
+            eq(DubboConstants.DUBBO_ROOT_PATH));
+
+        captureListener(demoTreeCache).childEvent(null,
+            new TreeCacheEvent(TreeCacheEvent.Type.NODE_ADDED, new ChildData(TEST_PATH, null, null)));
+        // the event is parsed once and shared by the tasks
+        Assert.assertSame(firstReceived.get(0), secondReceived.get(0));
+
+        zookeeperTreeCacheMultiplexer.unsubscribe(firstTask);
+        verify(demoTreeCache, never()).close();
+        zookeeperTreeCacheMultiplexer.unsubscribe(secondTask);
+        verify(demoTreeCache).close();
+        Assert.assertEquals(0, zookeeperTreeCacheMultiplexer.getTreeCacheCount());
+    }
+
+    private TreeCacheListener captureListener(TreeCache treeCache) {
+        ArgumentCaptor<TreeCacheListener> listenerCaptor = ArgumentCaptor.forClass(TreeCacheListener.class);
+        verify(treeCache.getListenable()).addListener(listenerCaptor.capture());
+        return listenerCaptor.getValue();
+    }
+
+    private TaskDO buildTask(String taskId, String serviceName) {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(taskId);
+        taskDO.setSourceClusterId(TEST_SOURCE_CLUSTER_ID);
+        taskDO.setServiceName(serviceName);
+        return taskDO;
+    }
+}
@@ -0,0 +1,74 @@
+package com.alibaba.nacossync.pojo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacossync.constant.ClusterTypeEnum;
+import com.alibaba.nacossync.constant.SkyWalkerConstants;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+
+/**
+ * @author NacosSync
+ * @version $Id: TaskDecorationTest.java, v 0.1 2026-10-18 PM7:55 NacosSync Exp $$
+ */
+public class TaskDecorationTest {
+
+    @Test
+    public void testDecorate() {
+
+        TaskDecoration taskDecoration = TaskDecoration.of(buildTask("source", "dest"), ClusterTypeEnum.ZK);
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("version", "1.0.0");
+        metadata.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, "stale");
+
+        Map<String, String> decorated = taskDecoration.decorate(metadata);
+
+        Map<String, String> expected = new HashMap<>(metadata);
+        expected.put(SkyWalkerConstants.DEST_CLUSTERID_KEY, "dest");
+        expected.put(SkyWalkerConstants.SYNC_SOURCE_KEY, ClusterTypeEnum.ZK.getCode());
+        expected.put(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, "source");
+        Assert.assertEquals(expected, decorated);
+        Assert.assertEquals(expected, new HashMap<>(decorated));
+        Assert.assertEquals(4, decorated.size());
+        Assert.assertEquals("dest", decorated.get(SkyWalkerConstants.DEST_CLUSTERID_KEY));
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+
+        TaskDecoration taskDecoration = TaskDecoration.of(buildTask("source", "dest"), ClusterTypeEnum.NACOS);
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("version", "1.0.0");
+
+        Map<String, String> decorated = taskDecoration.decorate(metadata);
+        decorated.put("weight", "10");
+        decorated.remove("version");
+
+        Assert.assertEquals("10", decorated.get("weight"));
+        Assert.assertFalse(decorated.containsKey("version"));
+        Assert.assertEquals("source", decorated.get(SkyWalkerConstants.SOURCE_CLUSTERID_KEY));
+        Assert.assertEquals(1, metadata.size());
+        Assert.assertEquals("1.0.0", metadata.get("version"));
+        Assert.assertEquals(3, taskDecoration.getOverlay().size());
+    }
+
+    @Test
+    public void testMatches() {
+
+        TaskDecoration taskDecoration = TaskDecoration.of(buildTask("source", "dest"), ClusterTypeEnum.NACOS);
+
+        Assert.assertTrue(taskDecoration.matches(buildTask("source", "dest")));
+        Assert.assertFalse(taskDecoration.matches(buildTask("source", "other")));
+    }
+
+    private TaskDO buildTask(String sourceClusterId, String destClusterId) {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId("task");
+        taskDO.setSourceClusterId(sourceClusterId);
+        taskDO.setDestClusterId(destClusterId);
+        return taskDO;
+    }
+}
@@ -0,0 +1,62 @@
+package com.alibaba.nacossync.template.processor;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.alibaba.nacossync.constant.TaskStatusEnum;
+import com.alibaba.nacossync.dao.TaskAccessService;
+import com.alibaba.nacossync.exception.SkyWalkerException;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.pojo.request.TaskDeleteRequest;
+import com.alibaba.nacossync.pojo.result.BaseResult;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-19 10:40
+ * @see TaskDeleteProcessor
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class TaskDeleteProcessorTest {
+
+    private static final String TEST_TASK_ID = "test-task-id";
+
+    @Mock
+    private TaskAccessService taskAccessService;
+
+    @InjectMocks
+    private TaskDeleteProcessor taskDeleteProcessor;
+
+    @Test
+    public void testTaskIsMarkedForTheOwningWorker() throws Exception {
+        TaskDO taskDO = new TaskDO();
+        taskDO.setTaskId(TEST_TASK_ID);
+        taskDO.setTaskStatus(TaskStatusEnum.SYNC.getCode());
+        taskDO.setOperationId("previous-operation-id");
+        doReturn(taskDO).when(taskAccessService).findByTaskId(TEST_TASK_ID);
+
+        taskDeleteProcessor.process(buildRequest(), new BaseResult());
+        Assert.assertEquals(TaskStatusEnum.DELETE.getCode(), taskDO.getTaskStatus());
+        // a new operation id, so the worker does not take the task for finished
+        Assert.assertNotEquals("previous-operation-id", taskDO.getOperationId());
+        verify(taskAccessService).addTask(taskDO);
+        verify(taskAccessService, never()).deleteTaskById(TEST_TASK_ID);
+    }
+
+    @Test(expected = SkyWalkerException.class)
+    public void testUnknownTask() throws Exception {
+        taskDeleteProcessor.process(buildRequest(), new BaseResult());
+    }
+
+    private TaskDeleteRequest buildRequest() {
+        TaskDeleteRequest taskDeleteRequest = new TaskDeleteRequest();
+        taskDeleteRequest.setTaskId(TEST_TASK_ID);
+        return taskDeleteRequest;
+    }
+}
@@ -0,0 +1,164 @@
+package com.alibaba.nacossync.timer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.alibaba.nacossync.cache.SkyWalkerCacheServices;
+import com.alibaba.nacossync.constant.TaskStatusEnum;
+import com.alibaba.nacossync.dao.TaskAccessService;
+import com.alibaba.nacossync.dao.repository.TaskRepository;
+import com.alibaba.nacossync.event.DeleteTaskEvent;
+import com.alibaba.nacossync.event.PartitionedEventBus;
+import com.alibaba.nacossync.event.ReleaseTaskEvent;
+import com.alibaba.nacossync.event.SyncTaskEvent;
+import com.alibaba.nacossync.event.TaskEvent;
+import com.alibaba.nacossync.monitor.MetricsManager;
+import com.alibaba.nacossync.pojo.FinishedTask;
+import com.alibaba.nacossync.pojo.model.TaskDO;
+import com.alibaba.nacossync.service.TaskShardingService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.internal.util.reflection.Whitebox;
+import org.mockito.runners.MockitoJUnitRunner;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-19 11:05
+ * @see QuerySyncTaskTimer
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class QuerySyncTaskTimerTest {
+
+    private static final long LOOKBACK_MILLIS = 10000L;
+
+    @Mock
+    private MetricsManager metricsManager;
+
+    @Mock
+    private SkyWalkerCacheServices skyWalkerCacheServices;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PartitionedEventBus eventBus;
+
+    @Mock
+    private ScheduledExecutorService scheduledExecutorService;
+
+    @Mock
+    private TaskShardingService taskShardingService;
+
+    @InjectMocks
+    private TaskAccessService taskAccessService;
+
+    @InjectMocks
+    private QuerySyncTaskTimer querySyncTaskTimer;
+
+    private final List<TaskEvent> postedEvents = new ArrayList<>();
+
+    private Runnable dispatchRound;
+
+    @Before
+    public void setUp() {
+        Whitebox.setInternalState(querySyncTaskTimer, "taskAccessService", taskAccessService);
+        Whitebox.setInternalState(querySyncTaskTimer, "lookbackMillis", LOOKBACK_MILLIS);
+        Whitebox.setInternalState(querySyncTaskTimer, "fullScanIntervalMillis", TimeUnit.MINUTES.toMillis(10));
+        doReturn(true).when(taskShardingService).isOwner(any(TaskDO.class));
+        doReturn(Collections.emptyList()).when(taskRepository).findAllByGmtModifiedGreaterThan(anyLong());
+        doAnswer(invocation -> postedEvents.add((TaskEvent) invocation.getArguments()[0]))
+            .when(eventBus).post(any(TaskEvent.class));
+
+        querySyncTaskTimer.run();
+        ArgumentCaptor<Runnable> roundCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduledExecutorService).scheduleWithFixedDelay(roundCaptor.capture(), anyLong(), anyLong(),
+            any(TimeUnit.class));
+        dispatchRound = roundCaptor.getValue();
+    }
+
+    @Test
+    public void testRowCommittedBehindTheHighWaterMarkIsDispatched() {
+        TaskDO finished = buildTask("finished", TaskStatusEnum.SYNC, 100000L);
+        doReturn(Collections.singletonList(finished)).when(taskRepository).findAll();
+        doReturn(new FinishedTask()).when(skyWalkerCacheServices).getFinishedTask(finished);
+        dispatchRound.run();
+
+        // committed late by another worker, older than the high-water mark but inside the look-back window
+        TaskDO late = buildTask("late", TaskStatusEnum.SYNC, 95000L);
+        doReturn(Collections.singletonList(late)).when(taskRepository)
+            .findAllByGmtModifiedGreaterThan(100000L - LOOKBACK_MILLIS);
+        dispatchRound.run();
+
+        Assert.assertEquals(Collections.singletonList(late), dispatchedTasks(SyncTaskEvent.class));
+    }
+
+    @Test
+    public void testSyncTaskIsRetriedUntilItFinishes() {
+        TaskDO task = buildTask("task", TaskStatusEnum.SYNC, 100000L);
+        doReturn(Collections.singletonList(task)).when(taskRepository).findAll();
+        dispatchRound.run();
+        dispatchRound.run();
+        Assert.assertEquals(Arrays.asList(task, task), dispatchedTasks(SyncTaskEvent.class));
+
+        doReturn(new FinishedTask()).when(skyWalkerCacheServices).getFinishedTask(task);
+        dispatchRound.run();
+        dispatchRound.run();
+        Assert.assertEquals(2, dispatchedTasks(SyncTaskEvent.class).size());
+    }
+
+    @Test
+    public void testFullScanDropsTasksThatNoLongerExist() {
+        TaskDO removed = buildTask("removed", TaskStatusEnum.SYNC, 100000L);
+        TaskDO handedOver = buildTask("handed-over", TaskStatusEnum.SYNC, 100000L);
+        doReturn(Arrays.asList(removed, handedOver)).when(taskRepository).findAll();
+        dispatchRound.run();
+        Assert.assertEquals(new HashSet<>(Arrays.asList(removed, handedOver)),
+            new HashSet<>(dispatchedTasks(SyncTaskEvent.class)));
+
+        // a worker joined, the next round is a full scan
+        postedEvents.clear();
+        doReturn(1L).when(taskShardingService).getMembershipVersion();
+        doReturn(Collections.singletonList(handedOver)).when(taskRepository).findAll();
+        doReturn(false).when(taskShardingService).isOwner(eq(handedOver));
+        dispatchRound.run();
+
+        Assert.assertEquals(Collections.singletonList(removed), dispatchedTasks(DeleteTaskEvent.class));
+        Assert.assertEquals(Collections.singletonList(handedOver), dispatchedTasks(ReleaseTaskEvent.class));
+        Assert.assertTrue(dispatchedTasks(SyncTaskEvent.class).isEmpty());
+    }
+
+    private List<TaskDO> dispatchedTasks(Class<? extends TaskEvent> eventType) {
+        List<TaskDO> taskDOS = new ArrayList<>();
+        for (TaskEvent event : postedEvents) {
+            if (eventType.isInstance(event)) {
+                taskDOS.add(event.getTaskDO());
+            }
+        }
+        return taskDOS;
+    }
+
+    private TaskDO buildTask(String taskId, TaskStatusEnum taskStatus, long gmtModified) {
+        TaskDO taskDO = mock(TaskDO.class);
+        doReturn(taskId).when(taskDO).getTaskId();
+        doReturn(taskStatus.getCode()).when(taskDO).getTaskStatus();
+        doReturn(gmtModified).when(taskDO).getGmtModified();
+        return taskDO;
+    }
+}
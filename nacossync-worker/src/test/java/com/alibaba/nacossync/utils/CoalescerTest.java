@@ -0,0 +1,48 @@
+package com.alibaba.nacossync.utils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacossync.util.Coalescer;
+
+/**
+ * @author NacosSync
+ * @version $Id: CoalescerTest.java, v 0.1 2026-10-18 PM3:50 NacosSync Exp $$
+ */
+public class CoalescerTest {
+
+    @Test
+    public void testBurstCollapsesIntoTwoPasses() throws Exception {
+
+        Coalescer coalescer = new Coalescer();
+        AtomicInteger passes = new AtomicInteger();
+        CountDownLatch firstPassStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstPass = new CountDownLatch(1);
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        Future<Boolean> owner = executorService.submit(() -> coalescer.execute("task", () -> {
+            if (passes.incrementAndGet() == 1) {
+                firstPassStarted.countDown();
+                releaseFirstPass.await();
+            }
+        }));
+
+        Assert.assertTrue(firstPassStarted.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            Assert.assertFalse(coalescer.execute("task", passes::incrementAndGet));
+        }
+        releaseFirstPass.countDown();
+
+        Assert.assertTrue(owner.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(2, passes.get());
+        executorService.shutdown();
+    }
+
+}
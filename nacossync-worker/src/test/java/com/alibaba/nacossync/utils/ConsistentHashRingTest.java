@@ -0,0 +1,41 @@
+package com.alibaba.nacossync.utils;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacossync.util.ConsistentHashRing;
+
+/**
+ * @author NacosSync
+ * @version $Id: ConsistentHashRingTest.java, v 0.1 2026-10-18 PM3:05 NacosSync Exp $$
+ */
+public class ConsistentHashRingTest {
+
+    @Test
+    public void testOnlyKeysOfLeavingNodeMove() {
+
+        ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("a:8083", "b:8083", "c:8083"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(Arrays.asList("a:8083", "b:8083"), 160);
+
+        int ownedByLeavingNode = 0;
+        for (int i = 0; i < 3000; i++) {
+            String key = "task-" + i;
+            String owner = before.locate(key);
+            if ("c:8083".equals(owner)) {
+                ownedByLeavingNode++;
+            } else {
+                Assert.assertEquals(owner, after.locate(key));
+            }
+        }
+        Assert.assertTrue(ownedByLeavingNode > 500 && ownedByLeavingNode < 1500);
+    }
+
+    @Test
+    public void testEmptyRing() {
+
+        Assert.assertNull(new ConsistentHashRing(Arrays.asList(), 160).locate("task"));
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.alibaba.nacossync.utils;
+
+import com.alibaba.nacossync.util.DubboConstants;
+import com.alibaba.nacossync.util.DubboUrlParser;
+import com.alibaba.nacossync.util.DubboUrlParser.ProviderUrl;
+import com.alibaba.nacossync.util.StringUtils;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author NacosSync
+ * @date: 2026-10-18 22:20
+ * @see DubboUrlParser
+ */
+public class DubboUrlParserTest {
+
+    private static final String TEST_URL =
+        "/dubbo/org.apache.dubbo.demo.DemoService/providers/hessian%3A%2F%2F172.16.0.10%3A20880%2Forg.apache.dubbo.demo.DemoService%3Fanyhost%3Dtrue%26application%3Ddemo-provider%26dubbo%3D2.0.2%26generic%3Dfalse%26group%3DtestGroup%26interface%3Dorg.apache.dubbo.demo.DemoService%26methods%3DsayHello%26pid%3D5956%26revision%3D1.0.0%26side%3Dprovider%26timestamp%3D1547285978821%26version%3D1.0.0%26weight%3D1";
+
+    @Test
+    public void testParseMatchesRegexParsers() {
+        ProviderUrl providerUrl = DubboUrlParser.parse(TEST_URL);
+        Map<String, String> ipAndPortParam = StringUtils.parseIpAndPortString(TEST_URL);
+        Map<String, String> queryParam = StringUtils.parseQueryString(TEST_URL);
+        queryParam.put(DubboConstants.PROTOCOL_KEY, ipAndPortParam.get(DubboConstants.PROTOCOL_KEY));
+
+        Assert.assertEquals(ipAndPortParam.get(DubboConstants.PROTOCOL_KEY), providerUrl.getProtocol());
+        Assert.assertEquals(ipAndPortParam.get(DubboConstants.INSTANCE_IP_KEY), providerUrl.getIp());
+        Assert.assertEquals(ipAndPortParam.get(DubboConstants.INSTANCE_PORT_KEY),
+            String.valueOf(providerUrl.getPort()));
+        Assert.assertEquals(queryParam, providerUrl.getParameters());
+        // the node name alone parses the same as the full path
+        Assert.assertEquals(providerUrl.getParameters(),
+            DubboUrlParser.parse(TEST_URL.substring(TEST_URL.lastIndexOf('/') + 1)).getParameters());
+    }
+
+    @Test
+    public void testParseIpv6AndUtf8() throws Exception {
+        String url = "tri://[fe80::1%eth0]:50051/com.foo.Bar?application=演示 应用&-bad=1&empty=&noValue&version=1.0";
+        ProviderUrl providerUrl = DubboUrlParser.parse(URLEncoder.encode(url, "UTF-8"));
+
+        Assert.assertEquals("tri", providerUrl.getProtocol());
+        Assert.assertEquals("fe80::1%eth0", providerUrl.getIp());
+        Assert.assertEquals(50051, providerUrl.getPort());
+        Map<String, String> expected = new HashMap<>();
+        expected.put("application", "演示 应用");
+        expected.put("empty", "");
+        expected.put("version", "1.0");
+        expected.put(DubboConstants.PROTOCOL_KEY, "tri");
+        Assert.assertEquals(expected, providerUrl.getParameters());
+    }
+
+    @Test
+    public void testParseWithoutAddress() {
+        ProviderUrl providerUrl = DubboUrlParser.parse("version%3D1.0%26group%3Da");
+
+        Assert.assertNull(providerUrl.getProtocol());
+        Assert.assertNull(providerUrl.getIp());
+        Assert.assertEquals(-1, providerUrl.getPort());
+        Assert.assertTrue(providerUrl.getParameters().isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.alibaba.nacossync.utils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.util.InstanceFingerprint;
+
+/**
+ * @author NacosSync
+ * @version $Id: InstanceFingerprintTest.java, v 0.1 2026-10-18 PM6:40 NacosSync Exp $$
+ */
+public class InstanceFingerprintTest {
+
+    @Test
+    public void testMetadataOrderDoesNotMatter() {
+
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("a", "1");
+        metadata.put("b", "2");
+        Map<String, String> reversed = new LinkedHashMap<>();
+        reversed.put("b", "2");
+        reversed.put("a", "1");
+
+        Assert.assertEquals(InstanceFingerprint.of(buildInstance(metadata)),
+            InstanceFingerprint.of(buildInstance(reversed)));
+    }
+
+    @Test
+    public void testChangedAttributesChangeFingerprint() {
+
+        Instance instance = buildInstance(new HashMap<>());
+        long fingerprint = InstanceFingerprint.of(instance);
+
+        instance.setWeight(2.0D);
+        long weightChanged = InstanceFingerprint.of(instance);
+        Assert.assertNotEquals(fingerprint, weightChanged);
+
+        instance.setHealthy(false);
+        long healthChanged = InstanceFingerprint.of(instance);
+        Assert.assertNotEquals(weightChanged, healthChanged);
+
+        instance.getMetadata().put("version", "1.0.1");
+        Assert.assertNotEquals(healthChanged, InstanceFingerprint.of(instance));
+    }
+
+    private Instance buildInstance(Map<String, String> metadata) {
+        Instance instance = new Instance();
+        instance.setIp("127.0.0.1");
+        instance.setPort(20880);
+        instance.setMetadata(metadata);
+        return instance;
+    }
+
+}
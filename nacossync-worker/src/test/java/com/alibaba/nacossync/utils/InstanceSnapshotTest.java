@@ -0,0 +1,62 @@
+package com.alibaba.nacossync.utils;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacossync.util.InstanceDiff;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
+
+/**
+ * @author NacosSync
+ * @version $Id: InstanceSnapshotTest.java, v 0.1 2026-10-18 PM7:10 NacosSync Exp $$
+ */
+public class InstanceSnapshotTest {
+
+    @Test
+    public void testLookup() {
+
+        InstanceSnapshot snapshot = InstanceSnapshot.builder(4)
+            .add("192.168.0.2", 20880, 2L)
+            .add("192.168.0.1", 20880, 1L)
+            .add("fe80::1", 20880, 3L)
+            .add("provider.local", 8080, 4L)
+            .add("192.168.0.1", 20880, 10L)
+            .build();
+
+        Assert.assertEquals(4, snapshot.size());
+        Assert.assertEquals(Long.valueOf(10L), snapshot.getFingerprint("192.168.0.1", 20880));
+        Assert.assertEquals(Long.valueOf(3L), snapshot.getFingerprint("fe80::1", 20880));
+        Assert.assertTrue(snapshot.contains("provider.local", 8080));
+        Assert.assertFalse(snapshot.contains("192.168.0.1", 20881));
+        Assert.assertFalse(snapshot.contains("192.168.0.01", 20880));
+        Assert.assertEquals(InstanceKey.of("192.168.0.1", 20880), snapshot.getKey(0));
+    }
+
+    @Test
+    public void testDiff() {
+
+        InstanceSnapshot previous = InstanceSnapshot.builder(3)
+            .add("10.0.0.1", 8080, 1L)
+            .add("10.0.0.2", 8080, 2L)
+            .add("provider-a.local", 8080, 3L)
+            .build();
+        InstanceSnapshot current = InstanceSnapshot.builder(3)
+            .add("10.0.0.1", 8080, 1L)
+            .add("10.0.0.2", 8080, 20L)
+            .add("provider-b.local", 8080, 4L)
+            .build();
+
+        InstanceDiff<InstanceKey> instanceDiff = InstanceSnapshot.diff(previous, current);
+
+        Assert.assertEquals(Collections.singletonList(InstanceKey.of("provider-b.local", 8080)),
+            instanceDiff.getAdded());
+        Assert.assertEquals(Collections.singletonList(InstanceKey.of("provider-a.local", 8080)),
+            instanceDiff.getRemoved());
+        Assert.assertEquals(Collections.singletonList(InstanceKey.of("10.0.0.2", 8080)), instanceDiff.getChanged());
+        Assert.assertTrue(InstanceSnapshot.diff(current, current).isEmpty());
+        Assert.assertEquals(3, InstanceSnapshot.diff(InstanceSnapshot.EMPTY, current).getAdded().size());
+    }
+}
@@ -0,0 +1,111 @@
+package com.alibaba.nacossync.utils;
+
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacos.api.common.Constants;
+import com.alibaba.nacos.api.naming.NamingService;
+import com.alibaba.nacos.api.naming.listener.NamingEvent;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.utils.NamingUtils;
+import com.alibaba.nacos.client.naming.NacosNamingService;
+import com.alibaba.nacos.client.naming.beat.BeatInfo;
+import com.alibaba.nacos.client.naming.beat.BeatReactor;
+import com.alibaba.nacos.client.naming.net.NamingProxy;
+import com.alibaba.nacossync.constant.SkyWalkerConstants;
+import com.alibaba.nacossync.util.InstanceKey;
+import com.alibaba.nacossync.util.InstanceSnapshot;
+import com.alibaba.nacossync.util.NacosUtils;
+
+/**
+ * @author NacosSync
+ * @version $Id: NacosUtilsTest.java, v 0.1 2026-10-19 AM0:30 NacosSync Exp $$
+ */
+public class NacosUtilsTest {
+
+    private static final String SOURCE_CLUSTER_ID = "source-cluster-id";
+
+    @Test
+    public void testInstancesLostByTheDestinationAreWrittenAgain() {
+
+        InstanceSnapshot snapshot = InstanceSnapshot.builder(2).add("127.0.0.1", 8080, 1L)
+            .add("127.0.0.2", 8080, 2L).build();
+        // nothing changed at the source, the destination lost the second instance, the third is not ours
+        Collection<InstanceKey> upserted = NacosUtils.getUpsertedOrMissing(InstanceSnapshot.diff(snapshot, snapshot),
+            Arrays.asList(InstanceKey.of("127.0.0.1", 8080), InstanceKey.of("127.0.0.2", 8080)),
+            Arrays.asList(buildInstance("127.0.0.1", SOURCE_CLUSTER_ID), buildInstance("127.0.0.2", "other")),
+            SOURCE_CLUSTER_ID);
+
+        Assert.assertEquals(Collections.singletonList(InstanceKey.of("127.0.0.2", 8080)),
+            Arrays.asList(upserted.toArray()));
+    }
+
+    @Test
+    public void testInstancesOfTheEventAreUsed() throws Exception {
+        NamingService namingService = mock(NamingService.class);
+        List<Instance> instances = Collections.singletonList(buildInstance("127.0.0.1", SOURCE_CLUSTER_ID));
+
+        Assert.assertSame(instances, NacosUtils.getInstances(new NamingEvent("test-service", instances),
+            namingService, "test-service", null));
+        verify(namingService, never()).getAllInstances(anyString(), anyString(), anyListOf(String.class),
+            anyBoolean());
+    }
+
+    @Test
+    public void testSubscribedInstancesAreQueriedWithoutEventInstances() throws Exception {
+        NamingService namingService = mock(NamingService.class);
+        List<Instance> instances = Collections.singletonList(buildInstance("127.0.0.1", SOURCE_CLUSTER_ID));
+        doReturn(instances).when(namingService)
+            .getAllInstances(eq("test-service"), eq(Constants.DEFAULT_GROUP), anyListOf(String.class), eq(true));
+
+        Assert.assertSame(instances, NacosUtils.getInstances(new NamingEvent("test-service", null), namingService,
+            "test-service", null));
+        Assert.assertSame(instances, NacosUtils.getInstances(null, namingService, "test-service", null));
+    }
+
+    @Test
+    public void testOnlyTheHeartbeatsOfTheSourceClusterAreStopped() throws Exception {
+        BeatReactor beatReactor = new BeatReactor(mock(NamingProxy.class));
+        try {
+            String groupedServiceName = NamingUtils.getGroupedName("test-service", Constants.DEFAULT_GROUP);
+            BeatInfo synced = beatReactor.buildBeatInfo(groupedServiceName, buildInstance("127.0.0.1",
+                SOURCE_CLUSTER_ID));
+            BeatInfo other = beatReactor.buildBeatInfo(groupedServiceName, buildInstance("127.0.0.2", "other"));
+            beatReactor.dom2Beat.put(beatReactor.buildKey(groupedServiceName, "127.0.0.1", 8080), synced);
+            beatReactor.dom2Beat.put(beatReactor.buildKey(groupedServiceName, "127.0.0.2", 8080), other);
+            NacosNamingService namingService = mock(NacosNamingService.class);
+            doReturn(beatReactor).when(namingService).getBeatReactor();
+
+            NacosUtils.stopHeartbeats(namingService, "test-service", null, SOURCE_CLUSTER_ID);
+            Assert.assertTrue(synced.isStopped());
+            Assert.assertEquals(Collections.singletonList(other), new ArrayList<>(beatReactor.dom2Beat.values()));
+            verify(namingService, never()).deregisterInstance(anyString(), anyString(), anyString(), anyInt());
+        } finally {
+            beatReactor.shutdown();
+        }
+    }
+
+    private Instance buildInstance(String ip, String sourceClusterId) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(8080);
+        instance.setMetadata(Collections.singletonMap(SkyWalkerConstants.SOURCE_CLUSTERID_KEY, sourceClusterId));
+        return instance;
+    }
+}
@@ -0,0 +1,69 @@
+package com.alibaba.nacossync.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacossync.util.RenderedPathCache;
+
+/**
+ * @author NacosSync
+ * @version $Id: RenderedPathCacheTest.java, v 0.1 2026-10-18 PM11:58 NacosSync Exp $$
+ */
+public class RenderedPathCacheTest {
+
+    private final List<String> renderedIps = new ArrayList<>();
+
+    private final RenderedPathCache.PathRenderer renderer = instance -> {
+        renderedIps.add(instance.getIp());
+        return "/providers/" + instance.getIp() + "?version=" + instance.getMetadata().get("version");
+    };
+
+    @Test
+    public void testOnlyNewOrChangedInstancesAreRendered() throws Exception {
+        RenderedPathCache renderedPathCache = new RenderedPathCache();
+        Object renderContext = new Object();
+        String[] paths = renderedPathCache.render(Arrays.asList(buildInstance("10.0.0.2", "1"),
+            buildInstance("10.0.0.1", "1")), renderContext, renderer);
+        Assert.assertArrayEquals(new String[] {"/providers/10.0.0.1?version=1", "/providers/10.0.0.2?version=1"},
+            paths);
+
+        renderedIps.clear();
+        paths = renderedPathCache.render(Arrays.asList(buildInstance("10.0.0.1", "1"),
+            buildInstance("10.0.0.2", "2"), buildInstance("10.0.0.3", "1")), renderContext, renderer);
+        Assert.assertEquals(Arrays.asList("10.0.0.2", "10.0.0.3"), renderedIps);
+        Assert.assertEquals("/providers/10.0.0.2?version=2", paths[1]);
+
+        // a new render context drops the rendered paths
+        renderedIps.clear();
+        renderedPathCache.render(Collections.singletonList(buildInstance("10.0.0.1", "1")), new Object(), renderer);
+        Assert.assertEquals(Collections.singletonList("10.0.0.1"), renderedIps);
+    }
+
+    @Test
+    public void testDisappearedInstancesAreEvicted() throws Exception {
+        RenderedPathCache renderedPathCache = new RenderedPathCache();
+        Object renderContext = new Object();
+        renderedPathCache.render(Arrays.asList(buildInstance("10.0.0.1", "1"), buildInstance("10.0.0.2", "1")),
+            renderContext, renderer);
+        renderedPathCache.render(Collections.singletonList(buildInstance("10.0.0.1", "1")), renderContext, renderer);
+        Assert.assertEquals(1, renderedPathCache.size());
+
+        renderedIps.clear();
+        renderedPathCache.render(Collections.singletonList(buildInstance("10.0.0.2", "1")), renderContext, renderer);
+        Assert.assertEquals(Collections.singletonList("10.0.0.2"), renderedIps);
+    }
+
+    private Instance buildInstance(String ip, String version) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(20880);
+        instance.setMetadata(Collections.singletonMap("version", version));
+        return instance;
+    }
+}